@@ -3,17 +3,19 @@ package com.microservices.auth;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Aplicación principal del servicio de autenticación
  */
-@SpringBootApplication
-@EnableCaching
-@ComponentScan(basePackages = {
+@SpringBootApplication(scanBasePackages = {
     "com.microservices.auth",
     "com.microservices.common"
 })
+@EnableCaching
+@EnableAsync
+@EnableScheduling
 public class AuthServiceApplication {
 
     public static void main(String[] args) {
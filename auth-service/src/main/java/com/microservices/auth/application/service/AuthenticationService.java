@@ -1,19 +1,28 @@
 package com.microservices.auth.application.service;
 
+import com.microservices.auth.domain.model.AccessToken;
+import com.microservices.auth.domain.model.UserCredentials;
 import com.microservices.auth.domain.model.UserEntity;
+import com.microservices.auth.domain.port.LoginThrottlePort;
+import com.microservices.auth.domain.port.TokenIssuerPort;
 import com.microservices.auth.domain.repository.UserRepositoryPort;
 import com.microservices.auth.domain.service.AuthenticationUseCase;
+import com.microservices.common.exception.TooManyRequestsException;
 import io.vavr.control.Either;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implementación de casos de uso de autenticación
@@ -26,24 +35,29 @@ public class AuthenticationService implements AuthenticationUseCase {
 
     private final UserRepositoryPort userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final TokenIssuerPort tokenIssuer;
+    private final LoginThrottlePort loginThrottle;
 
     @Override
     public Either<String, UserEntity> registerUser(String username, String email, String password, String firstName, String lastName) {
         log.info("Registrando nuevo usuario: {}", username);
 
-        if (userRepository.existsByUsername(username)) {
+        if (userRepository.mightExistByUsername(username) && userRepository.existsByUsername(username)) {
             return Either.left("Username already exists");
         }
 
-        if (userRepository.existsByEmail(email)) {
+        if (userRepository.mightExistByEmail(email) && userRepository.existsByEmail(email)) {
             return Either.left("Email already exists");
         }
 
+        String encodedPassword = passwordEncoder.encode(password);
+
         try {
             UserEntity user = UserEntity.builder()
                     .username(username)
                     .email(email)
-                    .password(passwordEncoder.encode(password))
+                    .password(encodedPassword)
                     .firstName(firstName)
                     .lastName(lastName)
                     .enabled(true)
@@ -64,56 +78,107 @@ public class AuthenticationService implements AuthenticationUseCase {
         }
     }
 
+    /**
+     * Sin transacción: la conexión no debe quedar retenida mientras se espera al pool de hashing y
+     * se ejecuta BCrypt; la búsqueda de credenciales abre y cierra la suya
+     */
     @Override
-    public Either<String, UserEntity> authenticate(String username, String password) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Either<String, UserCredentials> authenticate(String username, String password, String clientIp) {
         log.info("Autenticando usuario: {}", username);
 
-        var userOpt = userRepository.findByUsername(username);
+        // Antes de BD y BCrypt: un usuario o IP bloqueados no consumen CPU de hashing
+        Duration lockout = loginThrottle.lockoutRemaining(username, clientIp);
+        if (!lockout.isZero()) {
+            log.warn("❌ Login bloqueado por intentos fallidos: {} desde {}", username, clientIp);
+            throw new TooManyRequestsException("Too many failed login attempts", lockout);
+        }
+
+        if (!userRepository.mightExistByUsername(username)) {
+            log.warn("❌ Usuario inexistente (filtro de Bloom): {}", username);
+            loginThrottle.recordFailure(username, clientIp);
+            return Either.left("Invalid credentials");
+        }
+
+        var credentialsOpt = userRepository.findCredentialsByUsername(username);
         
-        if (userOpt.isEmpty()) {
+        if (credentialsOpt.isEmpty()) {
             log.error("❌ Usuario no encontrado: {}", username);
+            loginThrottle.recordFailure(username, clientIp);
             return Either.left("Invalid credentials");
         }
 
-        UserEntity user = userOpt.get();
-        log.debug("✅ Usuario encontrado: {}", user.getUsername());
+        UserCredentials credentials = credentialsOpt.get();
+        log.debug("✅ Usuario encontrado: {}", credentials.getUsername());
 
-        if (!user.isEnabled()) {
+        if (!credentials.isEnabled()) {
             log.warn("❌ Usuario deshabilitado: {}", username);
             return Either.left("User account is disabled");
         }
 
-        log.debug("🔍 Comparando contraseñas - Entrada: {} caracteres, Hash en BD: {} caracteres", 
-            password.length(), user.getPassword().length());
-        
-        boolean passwordMatch = passwordEncoder.matches(password, user.getPassword());
+        boolean passwordMatch = passwordEncoder.matches(password, credentials.getPasswordHash());
         log.debug("🔍 Resultado de comparación: {}", passwordMatch);
         
         if (!passwordMatch) {
             log.warn("❌ Contraseña incorrecta para usuario: {}", username);
+            loginThrottle.recordFailure(username, clientIp);
             return Either.left("Invalid credentials");
         }
 
+        if (passwordEncoder.upgradeEncoding(credentials.getPasswordHash())) {
+            try {
+                passwordUpgradeService.upgrade(credentials, password);
+            } catch (TaskRejectedException e) {
+                log.warn("Re-hash de contraseña descartado para {}: cola llena", username);
+            }
+        }
+
+        loginThrottle.recordSuccess(username, clientIp);
         log.info("✅ Usuario autenticado: {}", username);
-        return Either.right(user);
+        return Either.right(credentials);
     }
 
+    /**
+     * Sin transacción, como authenticate (la autoinvocación no pasa por el proxy)
+     */
     @Override
-    public Either<String, UserEntity> validateCredentials(String username, String password) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Either<String, UserCredentials> validateCredentials(String username, String password, String clientIp) {
         log.info("Validando credenciales para usuario: {}", username);
-        return authenticate(username, password);
+        return authenticate(username, password, clientIp);
     }
 
+    /**
+     * Sin transacción, como authenticate (la autoinvocación no pasa por el proxy)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Either<String, AccessToken> issueToken(String username, String password, String clientIp) {
+        log.info("Emitiendo token para usuario: {}", username);
+        return authenticate(username, password, clientIp).map(tokenIssuer::issue);
+    }
+
+    /**
+     * Sin readOnly: rellena la caché de usuarios, y tras un desalojo por escritura la réplica aún podría
+     * devolver la fila anterior, que quedaría cacheada hasta su TTL
+     */
     @Override
     public Either<String, UserEntity> getUserByUsername(String username) {
         log.debug("Buscando usuario: {}", username);
 
+        if (!userRepository.mightExistByUsername(username)) {
+            return Either.left("User not found");
+        }
+
         var userOpt = userRepository.findByUsername(username);
         return userOpt.isEmpty() 
             ? Either.left("User not found")
             : Either.right(userOpt.get());
     }
 
+    /**
+     * En el primario por lo mismo que getUserByUsername
+     */
     @Override
     public Either<String, UserEntity> getUserById(Long userId) {
         log.debug("Buscando usuario por ID: {}", userId);
@@ -125,16 +190,29 @@ public class AuthenticationService implements AuthenticationUseCase {
     }
 
     @Override
-    public Either<String, List<UserEntity>> getAllUsers() {
-        log.debug("Obteniendo todos los usuarios");
+    @Transactional(readOnly = true)
+    public Either<String, List<UserEntity>> getUsersPage(long afterId, int limit) {
+        log.debug("Obteniendo usuarios tras id {} (limit {})", afterId, limit);
         try {
-            return Either.right(userRepository.findAll());
+            return Either.right(userRepository.findPage(afterId, limit));
         } catch (Exception e) {
-            log.error("Error al obtener usuarios", e);
+            log.error("Error al obtener página de usuarios", e);
             return Either.left("Error retrieving users");
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Either<String, Long> streamUsers(long afterId, Consumer<UserEntity> consumer) {
+        log.debug("Streaming de usuarios tras id {}", afterId);
+        try {
+            return Either.right(userRepository.forEachAfter(afterId, consumer));
+        } catch (Exception e) {
+            log.error("Error en streaming de usuarios", e);
+            return Either.left("Error streaming users: " + e.getMessage());
+        }
+    }
+
     @Override
     public Either<String, UserEntity> assignRoleToUser(Long userId, String role) {
         log.info("Asignando rol {} al usuario {}", role, userId);
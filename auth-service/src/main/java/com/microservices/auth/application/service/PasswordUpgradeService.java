@@ -0,0 +1,38 @@
+package com.microservices.auth.application.service;
+
+import com.microservices.auth.domain.model.UserCredentials;
+import com.microservices.auth.domain.repository.UserRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Re-codifica hashes de contraseña obsoletos fuera del camino del login
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordUpgradeService {
+
+    private final UserRepositoryPort userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    @Async
+    @Transactional
+    public void upgrade(UserCredentials credentials, String rawPassword) {
+        try {
+            String newHash = passwordEncoder.encode(rawPassword);
+            if (userRepository.updatePasswordHash(credentials, newHash)) {
+                log.info("Hash de contraseña actualizado para usuario: {}", credentials.getUsername());
+            } else {
+                log.debug("Hash de contraseña modificado concurrentemente, se omite upgrade: {}",
+                    credentials.getUsername());
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo actualizar el hash de {}: {}", credentials.getUsername(), e.getMessage());
+        }
+    }
+}
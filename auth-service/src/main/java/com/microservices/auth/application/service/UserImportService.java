@@ -0,0 +1,212 @@
+package com.microservices.auth.application.service;
+
+import com.microservices.auth.domain.model.UserEntity;
+import com.microservices.auth.domain.model.UserImportResult;
+import com.microservices.auth.domain.model.UserImportRow;
+import com.microservices.auth.domain.port.PasswordHashingPort;
+import com.microservices.auth.domain.repository.UserRepositoryPort;
+import com.microservices.auth.domain.service.UserImportUseCase;
+import com.microservices.common.exception.ServiceOverloadedException;
+import io.vavr.control.Either;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Importación masiva de usuarios: validación y duplicados por conjuntos,
+ * hashing en paralelo e inserción en lotes JDBC (una transacción por lote)
+ */
+@Slf4j
+@Service
+public class UserImportService implements UserImportUseCase {
+
+    private final UserRepositoryPort userRepository;
+    private final PasswordHashingPort passwordHashing;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public UserImportService(UserRepositoryPort userRepository,
+                             PasswordHashingPort passwordHashing,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.import.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.passwordHashing = passwordHashing;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Either<String, UserImportResult> importUsers(Iterator<UserImportRow> rows) {
+        log.info("Iniciando importación masiva de usuarios");
+        UserImportResult result = new UserImportResult();
+        // Claves ya vistas en esta importación, para detectar duplicados dentro del propio fichero
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        try {
+            List<UserImportRow> chunk = new ArrayList<>(batchSize);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, seenUsernames, seenEmails, result);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, seenUsernames, seenEmails, result);
+        } catch (Exception e) {
+            log.error("Importación interrumpida", e);
+            return Either.left("Import aborted after " + result.getTotal() + " rows: " + e.getMessage());
+        }
+
+        log.info("Importación finalizada: {} importados, {} fallidos", result.getImported(), result.getFailed());
+        return Either.right(result);
+    }
+
+    private void importChunk(List<UserImportRow> chunk, Set<String> seenUsernames, Set<String> seenEmails,
+                             UserImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<UserImportRow> candidates = new ArrayList<>(chunk.size());
+        for (UserImportRow row : chunk) {
+            String error = validate(row);
+            if (error != null) {
+                result.failure(row.getLine(), row.getUsername(), error);
+            } else if (!seenUsernames.add(row.getUsername())) {
+                result.failure(row.getLine(), row.getUsername(), "Duplicate username in import");
+            } else if (!seenEmails.add(row.getEmail())) {
+                result.failure(row.getLine(), row.getUsername(), "Duplicate email in import");
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        Set<String> existingUsernames = userRepository.findExistingUsernames(
+            candidates.stream().map(UserImportRow::getUsername).toList());
+        Set<String> existingEmails = userRepository.findExistingEmails(
+            candidates.stream().map(UserImportRow::getEmail).toList());
+
+        List<UserImportRow> accepted = new ArrayList<>(candidates.size());
+        for (UserImportRow row : candidates) {
+            if (existingUsernames.contains(row.getUsername())) {
+                result.failure(row.getLine(), row.getUsername(), "Username already exists");
+            } else if (existingEmails.contains(row.getEmail())) {
+                result.failure(row.getLine(), row.getUsername(), "Email already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        // Un futuro por fila en el pool acotado de hashing, con tantos en vuelo como hilos tiene para no
+        // desbordar su cola; este hilo solo espera los resultados
+        int inFlight = Math.max(1, passwordHashing.parallelism());
+        List<CompletableFuture<String>> hashes = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            if (i >= inFlight) {
+                hashes.get(i - inFlight).handle((hash, error) -> null).join();
+            }
+            hashes.add(passwordHashing.encodeAsync(accepted.get(i).getPassword()));
+        }
+        List<UserImportRow> hashedRows = new ArrayList<>(accepted.size());
+        List<UserEntity> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            UserImportRow row = accepted.get(i);
+            String hash = hashOrNull(hashes.get(i));
+            if (hash == null) {
+                result.failure(row.getLine(), row.getUsername(), "Password hashing capacity exceeded, retry row");
+            } else {
+                hashedRows.add(row);
+                users.add(toUser(row, hash));
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.insertAll(users));
+            result.success(users.size());
+        } catch (DataIntegrityViolationException e) {
+            // Otro alta concurrente tomó un username o email tras la comprobación: se reintenta fila a
+            // fila para rechazar solo las que chocan y no el lote entero
+            log.warn("Conflicto de unicidad en lote de {} usuarios, reintentando fila a fila", users.size());
+            for (int i = 0; i < users.size(); i++) {
+                insertOne(hashedRows.get(i), users.get(i), result);
+            }
+        } catch (Exception e) {
+            log.error("Error insertando lote de {} usuarios", users.size(), e);
+            String message = "Batch insert failed: " + e.getMessage();
+            hashedRows.forEach(row -> result.failure(row.getLine(), row.getUsername(), message));
+        }
+    }
+
+    private void insertOne(UserImportRow row, UserEntity user, UserImportResult result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.insertAll(List.of(user)));
+            result.success(1);
+        } catch (DataIntegrityViolationException e) {
+            result.failure(row.getLine(), row.getUsername(), "Username or email already exists");
+        } catch (Exception e) {
+            log.error("Error insertando usuario {}", row.getUsername(), e);
+            result.failure(row.getLine(), row.getUsername(), "Insert failed: " + e.getMessage());
+        }
+    }
+
+    private static String hashOrNull(CompletableFuture<String> hash) {
+        try {
+            return hash.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ServiceOverloadedException) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static String validate(UserImportRow row) {
+        if (row.getError() != null) {
+            return row.getError();
+        }
+        if (isBlank(row.getUsername())) {
+            return "Missing username";
+        }
+        if (isBlank(row.getEmail())) {
+            return "Missing email";
+        }
+        if (isBlank(row.getPassword())) {
+            return "Missing password";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static UserEntity toUser(UserImportRow row, String encodedPassword) {
+        return UserEntity.builder()
+            .username(row.getUsername())
+            .email(row.getEmail())
+            .password(encodedPassword)
+            .firstName(row.getFirstName())
+            .lastName(row.getLastName())
+            .enabled(true)
+            .accountNonExpired(true)
+            .accountNonLocked(true)
+            .credentialsNonExpired(true)
+            .createdAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .roles(new HashSet<>(Set.of("USER")))
+            .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.microservices.auth.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Token de acceso firmado emitido por el servicio
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "tokenValue")
+public class AccessToken {
+
+    private final String tokenValue;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+}
@@ -0,0 +1,31 @@
+package com.microservices.auth.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Proyección mínima de un usuario para validar credenciales
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "passwordHash")
+public class UserCredentials implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String username;
+    private String passwordHash;
+    private boolean enabled;
+    @Builder.Default
+    private Set<String> roles = new HashSet<>();
+}
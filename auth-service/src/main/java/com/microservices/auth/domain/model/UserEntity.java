@@ -1,6 +1,8 @@
 package com.microservices.auth.domain.model;
 
 import lombok.*;
+
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -14,7 +16,9 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @ToString(exclude = {"password", "roles"})
-public class UserEntity {
+public class UserEntity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Long id;
     private String username;
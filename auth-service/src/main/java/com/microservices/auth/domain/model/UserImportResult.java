@@ -0,0 +1,55 @@
+package com.microservices.auth.domain.model;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de usuarios
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class UserImportResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Máximo de errores de fila detallados en la respuesta; failed refleja el total real
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long total;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void success(int count) {
+        this.total += count;
+        this.imported += count;
+    }
+
+    public void failure(long line, String username, String message) {
+        this.total++;
+        this.failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, username, message));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @ToString
+    public static class RowError implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long line;
+        private final String username;
+        private final String message;
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservices.auth.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Fila de una importación masiva de usuarios; error != null si no se pudo parsear
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "password")
+public class UserImportRow {
+
+    private final long line;
+    private final String username;
+    private final String email;
+    private final String password;
+    private final String firstName;
+    private final String lastName;
+    private final String error;
+
+    public static UserImportRow invalid(long line, String error) {
+        return UserImportRow.builder()
+                .line(line)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.microservices.auth.domain.port;
+
+import java.time.Duration;
+
+/**
+ * Puerto de salida para limitar los intentos fallidos de login por usuario y por IP (Hexagonal)
+ */
+public interface LoginThrottlePort {
+
+    /**
+     * Tiempo de bloqueo restante del usuario o de la IP; Duration.ZERO si se permite el intento
+     */
+    Duration lockoutRemaining(String username, String clientIp);
+
+    /**
+     * Registra un intento fallido (usuario inexistente o contraseña incorrecta)
+     */
+    void recordFailure(String username, String clientIp);
+
+    /**
+     * Registra un login correcto, que reinicia el contador del usuario
+     */
+    void recordSuccess(String username, String clientIp);
+}
@@ -0,0 +1,19 @@
+package com.microservices.auth.domain.port;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Puerto de salida para calcular hashes de contraseña en el pool acotado sin bloquear al llamante (Hexagonal)
+ */
+public interface PasswordHashingPort {
+
+    /**
+     * Hash en el pool de hashing; el futuro falla con ServiceOverloadedException si está saturado
+     */
+    CompletableFuture<String> encodeAsync(String rawPassword);
+
+    /**
+     * Hashes que el pool calcula a la vez
+     */
+    int parallelism();
+}
@@ -0,0 +1,15 @@
+package com.microservices.auth.domain.port;
+
+import com.microservices.auth.domain.model.AccessToken;
+import com.microservices.auth.domain.model.UserCredentials;
+
+/**
+ * Puerto de salida para emisión de tokens de acceso (Hexagonal)
+ */
+public interface TokenIssuerPort {
+
+    /**
+     * Emite un token firmado para un usuario ya autenticado
+     */
+    AccessToken issue(UserCredentials credentials);
+}
@@ -1,7 +1,10 @@
 package com.microservices.auth.domain.repository;
 
 import io.vavr.control.Option;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Puerto de salida para persistencia de usuarios (Hexagonal)
@@ -13,6 +16,11 @@ public interface UserRepositoryPort {
      */
     Option<com.microservices.auth.domain.model.UserEntity> findByUsername(String username);
 
+    /**
+     * Obtiene solo id, hash, estado y roles de un usuario en una única consulta
+     */
+    Option<com.microservices.auth.domain.model.UserCredentials> findCredentialsByUsername(String username);
+
     /**
      * Busca un usuario por correo electrónico
      */
@@ -29,9 +37,24 @@ public interface UserRepositoryPort {
     com.microservices.auth.domain.model.UserEntity save(com.microservices.auth.domain.model.UserEntity user);
 
     /**
-     * Obtiene todos los usuarios
+     * Reemplaza el hash de contraseña si sigue siendo el leído (retorna false si cambió entretanto)
+     */
+    boolean updatePasswordHash(com.microservices.auth.domain.model.UserCredentials credentials, String newHash);
+
+    /**
+     * Inserta usuarios nuevos en lotes JDBC (usuarios y roles); retorna los usuarios con id asignado
+     */
+    List<com.microservices.auth.domain.model.UserEntity> insertAll(List<com.microservices.auth.domain.model.UserEntity> users);
+
+    /**
+     * Obtiene hasta limit usuarios con id mayor que afterId, ordenados por id (keyset)
+     */
+    List<com.microservices.auth.domain.model.UserEntity> findPage(long afterId, int limit);
+
+    /**
+     * Recorre en streaming los usuarios con id mayor que afterId; retorna el número procesado
      */
-    List<com.microservices.auth.domain.model.UserEntity> findAll();
+    long forEachAfter(long afterId, Consumer<com.microservices.auth.domain.model.UserEntity> consumer);
 
     /**
      * Verifica si existe un usuario por email
@@ -42,4 +65,24 @@ public interface UserRepositoryPort {
      * Verifica si existe un usuario por username
      */
     boolean existsByUsername(String username);
+
+    /**
+     * false si el username seguro que no existe (sin consultar la BD); true si puede existir
+     */
+    boolean mightExistByUsername(String username);
+
+    /**
+     * false si el email seguro que no existe (sin consultar la BD); true si puede existir
+     */
+    boolean mightExistByEmail(String email);
+
+    /**
+     * Retorna los usernames de la colección que ya existen (una sola consulta)
+     */
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * Retorna los emails de la colección que ya existen (una sola consulta)
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
 }
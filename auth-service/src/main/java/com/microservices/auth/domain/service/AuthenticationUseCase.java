@@ -1,8 +1,11 @@
 package com.microservices.auth.domain.service;
 
+import com.microservices.auth.domain.model.AccessToken;
+import com.microservices.auth.domain.model.UserCredentials;
 import com.microservices.auth.domain.model.UserEntity;
 import io.vavr.control.Either;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Puerto de entrada - Casos de uso de autenticación (Hexagonal)
@@ -15,14 +18,19 @@ public interface AuthenticationUseCase {
     Either<String, UserEntity> registerUser(String username, String email, String password, String firstName, String lastName);
 
     /**
-     * Autentica un usuario
+     * Autentica un usuario (clientIp puede ser null)
      */
-    Either<String, UserEntity> authenticate(String username, String password);
+    Either<String, UserCredentials> authenticate(String username, String password, String clientIp);
 
     /**
      * Valida las credenciales de un usuario (para Web-UI)
      */
-    Either<String, UserEntity> validateCredentials(String username, String password);
+    Either<String, UserCredentials> validateCredentials(String username, String password, String clientIp);
+
+    /**
+     * Autentica y emite un token de acceso firmado
+     */
+    Either<String, AccessToken> issueToken(String username, String password, String clientIp);
 
     /**
      * Busca un usuario por username
@@ -35,9 +43,14 @@ public interface AuthenticationUseCase {
     Either<String, UserEntity> getUserById(Long userId);
 
     /**
-     * Obtiene todos los usuarios (Admin)
+     * Obtiene una página de usuarios con paginación por cursor (Admin)
+     */
+    Either<String, List<UserEntity>> getUsersPage(long afterId, int limit);
+
+    /**
+     * Recorre en streaming todos los usuarios a partir de un cursor (Admin)
      */
-    Either<String, List<UserEntity>> getAllUsers();
+    Either<String, Long> streamUsers(long afterId, Consumer<UserEntity> consumer);
 
     /**
      * Asigna un rol a un usuario
@@ -0,0 +1,18 @@
+package com.microservices.auth.domain.service;
+
+import com.microservices.auth.domain.model.UserImportResult;
+import com.microservices.auth.domain.model.UserImportRow;
+import io.vavr.control.Either;
+
+import java.util.Iterator;
+
+/**
+ * Puerto de entrada - Importación masiva de usuarios (Hexagonal)
+ */
+public interface UserImportUseCase {
+
+    /**
+     * Importa usuarios por lotes; los errores de fila no abortan la importación
+     */
+    Either<String, UserImportResult> importUsers(Iterator<UserImportRow> rows);
+}
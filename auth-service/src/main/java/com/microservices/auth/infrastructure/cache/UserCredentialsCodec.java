@@ -0,0 +1,42 @@
+package com.microservices.auth.infrastructure.cache;
+
+import com.microservices.auth.domain.model.UserCredentials;
+import com.microservices.common.cache.EntityCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Esquema binario de UserCredentials en la caché userCredentials.
+ * v1: id, username, passwordHash, enabled, roles.
+ */
+public class UserCredentialsCodec implements EntityCodec<UserCredentials> {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(UserCredentials credentials, DataOutput out) throws IOException {
+        EntityCodec.writeLong(out, credentials.getId());
+        EntityCodec.writeString(out, credentials.getUsername());
+        EntityCodec.writeString(out, credentials.getPasswordHash());
+        out.writeBoolean(credentials.isEnabled());
+        EntityCodec.writeStrings(out, credentials.getRoles());
+    }
+
+    @Override
+    public UserCredentials read(DataInput in, int version) throws IOException {
+        UserCredentials.UserCredentialsBuilder credentials = UserCredentials.builder()
+            .id(EntityCodec.readLong(in))
+            .username(EntityCodec.readString(in))
+            .passwordHash(EntityCodec.readString(in))
+            .enabled(in.readBoolean());
+        Set<String> roles = EntityCodec.readStrings(in);
+        return credentials.roles(roles == null ? new HashSet<>() : roles).build();
+    }
+}
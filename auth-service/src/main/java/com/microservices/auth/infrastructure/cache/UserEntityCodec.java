@@ -0,0 +1,64 @@
+package com.microservices.auth.infrastructure.cache;
+
+import com.microservices.auth.domain.model.UserEntity;
+import com.microservices.common.cache.EntityCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Esquema binario de UserEntity en las cachés usersById, usersByUsername y usersByEmail.
+ * v1: id, username, email, password, firstName, lastName, flags, createdAt, updatedAt, roles.
+ */
+public class UserEntityCodec implements EntityCodec<UserEntity> {
+
+    private static final int ENABLED = 1;
+    private static final int ACCOUNT_NON_EXPIRED = 1 << 1;
+    private static final int ACCOUNT_NON_LOCKED = 1 << 2;
+    private static final int CREDENTIALS_NON_EXPIRED = 1 << 3;
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(UserEntity user, DataOutput out) throws IOException {
+        EntityCodec.writeLong(out, user.getId());
+        EntityCodec.writeString(out, user.getUsername());
+        EntityCodec.writeString(out, user.getEmail());
+        EntityCodec.writeString(out, user.getPassword());
+        EntityCodec.writeString(out, user.getFirstName());
+        EntityCodec.writeString(out, user.getLastName());
+        out.writeByte((user.isEnabled() ? ENABLED : 0)
+            | (user.isAccountNonExpired() ? ACCOUNT_NON_EXPIRED : 0)
+            | (user.isAccountNonLocked() ? ACCOUNT_NON_LOCKED : 0)
+            | (user.isCredentialsNonExpired() ? CREDENTIALS_NON_EXPIRED : 0));
+        EntityCodec.writeDateTime(out, user.getCreatedAt());
+        EntityCodec.writeDateTime(out, user.getUpdatedAt());
+        EntityCodec.writeStrings(out, user.getRoles());
+    }
+
+    @Override
+    public UserEntity read(DataInput in, int version) throws IOException {
+        UserEntity.UserEntityBuilder user = UserEntity.builder()
+            .id(EntityCodec.readLong(in))
+            .username(EntityCodec.readString(in))
+            .email(EntityCodec.readString(in))
+            .password(EntityCodec.readString(in))
+            .firstName(EntityCodec.readString(in))
+            .lastName(EntityCodec.readString(in));
+        int flags = in.readUnsignedByte();
+        user.enabled((flags & ENABLED) != 0)
+            .accountNonExpired((flags & ACCOUNT_NON_EXPIRED) != 0)
+            .accountNonLocked((flags & ACCOUNT_NON_LOCKED) != 0)
+            .credentialsNonExpired((flags & CREDENTIALS_NON_EXPIRED) != 0)
+            .createdAt(EntityCodec.readDateTime(in))
+            .updatedAt(EntityCodec.readDateTime(in));
+        Set<String> roles = EntityCodec.readStrings(in);
+        return user.roles(roles == null ? new HashSet<>() : roles).build();
+    }
+}
@@ -0,0 +1,244 @@
+package com.microservices.auth.infrastructure.cache;
+
+import com.microservices.auth.infrastructure.config.CacheConfig;
+import com.microservices.common.cache.CacheInvalidationBus;
+import com.microservices.common.cache.CacheInvalidationListener;
+import com.microservices.common.concurrent.BackgroundRebuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Filtros de Bloom de usernames y emails para descartar sin consultar la BD los que no existen.
+ * Se construyen al arrancar recorriendo la tabla users y se reconstruyen periódicamente
+ * (redimensionado); hasta estar listos no descartan nada. Las altas hechas en otras instancias llegan
+ * como invalidaciones de usersByUsername/usersByEmail; si se pierden, se reconstruye.
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+
+    private static final String COUNT_SQL = "SELECT count(*) FROM users";
+    private static final String SCAN_SQL = "SELECT username, email FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate scanTransaction;
+    private final double falsePositiveRate;
+    private final long minimumCapacity;
+    private final int fetchSize;
+    private final Timer rebuildTimer;
+    private final Counter usernameMisses;
+    private final Counter emailMisses;
+    private final BackgroundRebuilder rebuilder;
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public UserExistenceFilter(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               CacheInvalidationBus invalidationBus,
+                               TaskScheduler taskScheduler,
+                               @Value("${app.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${app.bloom.minimum-capacity:100000}") long minimumCapacity,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.fetch_size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // El driver de PostgreSQL solo respeta fetchSize (cursor) con autocommit desactivado. Sin readOnly,
+        // para leer del primario: en la réplica faltaría lo confirmado dentro de su retraso antes de
+        // publicar building, y el intercambio lo perdería hasta la siguiente reconstrucción
+        this.scanTransaction = new TransactionTemplate(transactionManager);
+        this.falsePositiveRate = falsePositiveRate;
+        this.minimumCapacity = minimumCapacity;
+        this.fetchSize = fetchSize;
+        this.rebuilder = new BackgroundRebuilder("filtros de Bloom", this::rebuildFilters, taskScheduler);
+
+        this.rebuildTimer = Timer.builder("auth.bloom.rebuild")
+            .description("Tiempo de construcción de los filtros de Bloom")
+            .register(meterRegistry);
+        this.usernameMisses = shortCircuitCounter(meterRegistry, "username");
+        this.emailMisses = shortCircuitCounter(meterRegistry, "email");
+        registerGauges(meterRegistry, "username", Filters::usernames);
+        registerGauges(meterRegistry, "email", Filters::emails);
+        invalidationBus.addListener(new RemoteRegistrations());
+    }
+
+    /**
+     * false = el username seguro que no existe; true = puede existir (o el filtro aún no está listo)
+     */
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        if (filters == null || username == null || filters.usernames().mightContain(username)) {
+            return true;
+        }
+        usernameMisses.increment();
+        return false;
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        if (filters == null || email == null || filters.emails().mightContain(email)) {
+            return true;
+        }
+        emailMisses.increment();
+        return false;
+    }
+
+    /**
+     * Registra un usuario nuevo tras el commit de la transacción en curso (o inmediatamente si no hay)
+     */
+    public void addAfterCommit(String username, String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(username, email);
+                }
+            });
+        } else {
+            add(username, email);
+        }
+    }
+
+    public void add(String username, String email) {
+        // Las altas durante una reconstrucción van también al filtro nuevo; se lee building antes
+        // que current para no perder un alta que coincida con el intercambio de filtros
+        Filters next = building;
+        if (next != null) {
+            next.put(username, email);
+        }
+        Filters target = current;
+        if (target != null && target != next) {
+            target.put(username, email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.bloom.rebuild-interval:1h}", fixedDelayString = "${app.bloom.rebuild-interval:1h}")
+    public void rebuild() {
+        rebuilder.run();
+    }
+
+    /**
+     * Reconstrucción en segundo plano; las peticiones que llegan mientras hay una pendiente se ignoran
+     */
+    public void requestRebuild() {
+        rebuilder.request();
+    }
+
+    private void rebuildFilters() {
+        try {
+            rebuildTimer.record(() -> {
+                Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+                long capacity = Math.max(minimumCapacity, (count == null ? 0 : count) * 2);
+                Filters next = new Filters(
+                    BloomFilter.create(capacity, falsePositiveRate),
+                    BloomFilter.create(capacity, falsePositiveRate));
+                // Publicar antes de leer la tabla: lo que se confirme después del snapshot llega vía add()
+                building = next;
+
+                scanTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement(SCAN_SQL);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, rs -> {
+                    next.put(rs.getString(1), rs.getString(2));
+                }));
+
+                current = next;
+                building = null;
+                log.info("Filtros de Bloom construidos: {} usuarios, capacidad {}, {} KB",
+                    next.usernames().insertions(), capacity, next.memoryBytes() / 1024);
+            });
+        } catch (Exception e) {
+            building = null;
+            log.error("Error construyendo filtros de Bloom", e);
+        }
+    }
+
+    private static Counter shortCircuitCounter(MeterRegistry meterRegistry, String filter) {
+        return Counter.builder("auth.bloom.definite.misses")
+            .description("Búsquedas descartadas sin consultar la BD")
+            .tag("filter", filter)
+            .register(meterRegistry);
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry, String filter, Function<Filters, BloomFilter> selector) {
+        Gauge.builder("auth.bloom.false.positive.rate", this, f -> f.metric(selector, BloomFilter::expectedFalsePositiveRate))
+            .description("Tasa de falsos positivos estimada")
+            .tag("filter", filter)
+            .register(meterRegistry);
+        Gauge.builder("auth.bloom.memory", this, f -> f.metric(selector, BloomFilter::memoryBytes))
+            .description("Memoria del filtro de Bloom")
+            .tag("filter", filter)
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("auth.bloom.insertions", this, f -> f.metric(selector, BloomFilter::insertions))
+            .description("Elementos insertados en el filtro de Bloom")
+            .tag("filter", filter)
+            .register(meterRegistry);
+    }
+
+    private double metric(Function<Filters, BloomFilter> selector, ToDoubleFunction<BloomFilter> value) {
+        Filters filters = current;
+        return filters == null ? Double.NaN : value.applyAsDouble(selector.apply(filters));
+    }
+
+    /**
+     * Los desalojos de usuarios en otras instancias incluyen los de las altas: se añaden al filtro
+     * (añadir un usuario ya existente no cambia nada)
+     */
+    private final class RemoteRegistrations implements CacheInvalidationListener {
+
+        @Override
+        public void evict(String cacheName, Object key) {
+            if (key instanceof String value) {
+                if (CacheConfig.USERS_BY_USERNAME.equals(cacheName)) {
+                    add(value, null);
+                } else if (CacheConfig.USERS_BY_EMAIL.equals(cacheName)) {
+                    add(null, value);
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+            requestRebuild();
+        }
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        void put(String username, String email) {
+            if (username != null) {
+                usernames.put(username);
+            }
+            if (email != null) {
+                emails.put(email);
+            }
+        }
+
+        long memoryBytes() {
+            return usernames.memoryBytes() + emails.memoryBytes();
+        }
+    }
+}
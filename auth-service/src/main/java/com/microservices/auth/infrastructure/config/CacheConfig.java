@@ -0,0 +1,145 @@
+package com.microservices.auth.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.auth.domain.model.UserCredentials;
+import com.microservices.auth.domain.model.UserEntity;
+import com.microservices.auth.infrastructure.cache.UserCredentialsCodec;
+import com.microservices.auth.infrastructure.cache.UserEntityCodec;
+import com.microservices.common.cache.CacheInvalidationBus;
+import com.microservices.common.cache.CacheInvalidationListener;
+import com.microservices.common.cache.OptionRedisSerializer;
+import com.microservices.common.cache.TwoLevelCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Configuración de caché de usuarios en dos niveles (Caffeine + Redis), con los valores en Redis
+ * codificados en binario por esquema (UserEntityCodec, UserCredentialsCodec). Los desalojos se aplican
+ * tras el commit y se difunden por el bus de invalidación para que el resto de instancias
+ * descarte su copia en L1.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String USER_CREDENTIALS = "userCredentials";
+
+    private static final List<String> USER_CACHES =
+        List.of(USERS_BY_ID, USERS_BY_USERNAME, USERS_BY_EMAIL, USER_CREDENTIALS);
+
+    @Value("${spring.cache.redis.time-to-live:1800000}")
+    private Duration redisTtl;
+
+    @Value("${app.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${app.cache.local.expire-after-write:60s}")
+    private Duration localTtl;
+
+    @Value("${app.cache.invalidation.channel:auth:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(redisTemplate, invalidationChannel, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Entrega en el hilo de suscripción: conserva el orden de los mensajes para detectar huecos
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(invalidationBus, invalidationBus.topic());
+        return container;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry,
+                                     CacheInvalidationBus invalidationBus) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig().entryTtl(redisTtl);
+        UserEntityCodec userCodec = new UserEntityCodec();
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(defaults)
+            .withInitialCacheConfigurations(Map.of(
+                USERS_BY_ID, defaults.serializeValuesWith(SerializationPair.fromSerializer(
+                    new OptionRedisSerializer<>(USERS_BY_ID, UserEntity.class, userCodec, meterRegistry))),
+                USERS_BY_USERNAME, defaults.serializeValuesWith(SerializationPair.fromSerializer(
+                    new OptionRedisSerializer<>(USERS_BY_USERNAME, UserEntity.class, userCodec, meterRegistry))),
+                USERS_BY_EMAIL, defaults.serializeValuesWith(SerializationPair.fromSerializer(
+                    new OptionRedisSerializer<>(USERS_BY_EMAIL, UserEntity.class, userCodec, meterRegistry))),
+                USER_CREDENTIALS, defaults.serializeValuesWith(SerializationPair.fromSerializer(
+                    new OptionRedisSerializer<>(USER_CREDENTIALS, UserCredentials.class, new UserCredentialsCodec(), meterRegistry)))))
+            .enableStatistics()
+            .build();
+        redisCacheManager.initializeCaches();
+
+        Map<String, TwoLevelCache> caches = USER_CACHES.stream()
+            .collect(Collectors.toMap(Function.identity(), name ->
+                twoLevelCache(name, (RedisCache) redisCacheManager.getCache(name), meterRegistry, invalidationBus)));
+        invalidationBus.addListener(new CacheInvalidationListener() {
+            @Override
+            public void evict(String cacheName, Object key) {
+                TwoLevelCache cache = caches.get(cacheName);
+                if (cache != null) {
+                    if (key == null) {
+                        cache.clearLocal();
+                    } else {
+                        cache.evictLocal(key);
+                    }
+                }
+            }
+
+            @Override
+            public void flush() {
+                caches.values().forEach(TwoLevelCache::clearLocal);
+            }
+        });
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(USER_CACHES.stream()
+            .map(name -> new TransactionAwareCacheDecorator(caches.get(name)))
+            .toList());
+        return cacheManager;
+    }
+
+    private TwoLevelCache twoLevelCache(String name, RedisCache remote, MeterRegistry meterRegistry,
+                                        CacheInvalidationBus invalidationBus) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeLocal = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(localTtl)
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeLocal, name, Tags.of("tier", "local"));
+        new RedisCacheMetrics(remote, Tags.of("tier", "remote")).bindTo(meterRegistry);
+
+        return new TwoLevelCache(name, new CaffeineCache(name, nativeLocal), remote, invalidationBus);
+    }
+}
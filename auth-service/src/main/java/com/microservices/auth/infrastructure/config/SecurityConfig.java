@@ -1,13 +1,21 @@
 package com.microservices.auth.infrastructure.config;
 
+import com.microservices.auth.infrastructure.security.BCryptCostCalibrator;
+import com.microservices.auth.infrastructure.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * Configuración de seguridad
  */
@@ -15,9 +23,54 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
+    /**
+     * Coste fijo de BCrypt; 0 = calibrar al arrancar contra target-latency
+     */
+    @Value("${app.security.hashing.cost:0}")
+    private int hashingCost;
+
+    @Value("${app.security.hashing.target-latency:100ms}")
+    private Duration hashingTargetLatency;
+
+    @Value("${app.security.hashing.min-cost:4}")
+    private int hashingMinCost;
+
+    @Value("${app.security.hashing.max-cost:14}")
+    private int hashingMaxCost;
+
+    @Value("${app.security.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.hashing.max-wait:2s}")
+    private Duration hashingMaxWait;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(4);
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+            versionedPasswordEncoder(), threads, hashingQueueCapacity, hashingMaxWait, meterRegistry);
+    }
+
+    /**
+     * Encoder versionado ({id}hash); los hashes sin prefijo o con coste menor se marcan para upgrade.
+     * Solo ids de hash reales: un {noop} almacenado no debe valer como contraseña en claro.
+     */
+    private PasswordEncoder versionedPasswordEncoder() {
+        int cost = hashingCost > 0
+            ? hashingCost
+            : BCryptCostCalibrator.calibrate(hashingTargetLatency, hashingMinCost, hashingMaxCost);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(
+            BCRYPT_ID, new BCryptPasswordEncoder(cost)
+        ));
+        // Hashes heredados sin prefijo: BCrypt lee el coste del propio hash
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
 
     @Bean
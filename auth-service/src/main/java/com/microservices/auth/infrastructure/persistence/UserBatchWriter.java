@@ -0,0 +1,68 @@
+package com.microservices.auth.infrastructure.persistence;
+
+import com.microservices.auth.domain.model.UserEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserciones por lotes JDBC de usuarios y roles.
+ * UserJpaEntity usa IDENTITY, que desactiva el batching de Hibernate; aquí se reservan
+ * los ids de la secuencia en una sola consulta y se insertan con batchUpdate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserBatchWriter {
+
+    private static final String RESERVE_IDS_SQL =
+        "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_USER_SQL = """
+        INSERT INTO users (id, username, email, password, first_name, last_name, enabled,
+                           account_non_expired, account_non_locked, credentials_non_expired,
+                           created_at, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String INSERT_ROLE_SQL = "INSERT INTO user_roles (user_id, role) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<UserEntity> insertAll(List<UserEntity> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, users.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> userRows = new ArrayList<>(users.size());
+        List<Object[]> roleRows = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            UserEntity user = users.get(i);
+            Long id = ids.get(i);
+            user.setId(id);
+            userRows.add(new Object[] {
+                id, user.getUsername(), user.getEmail(), user.getPassword(),
+                user.getFirstName(), user.getLastName(), user.isEnabled(),
+                user.isAccountNonExpired(), user.isAccountNonLocked(), user.isCredentialsNonExpired(),
+                now, now
+            });
+            for (String role : user.getRoles()) {
+                roleRows.add(new Object[] {id, role});
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, userRows);
+        jdbcTemplate.batchUpdate(INSERT_ROLE_SQL, roleRows);
+        log.debug("Lote insertado: {} usuarios, {} roles", userRows.size(), roleRows.size());
+        return users;
+    }
+}
@@ -0,0 +1,20 @@
+package com.microservices.auth.infrastructure.persistence;
+
+/**
+ * Proyección de Spring Data para la consulta de credenciales
+ */
+public interface UserCredentialsView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getPasswordHash();
+
+    Boolean getEnabled();
+
+    /**
+     * Roles agregados en SQL, separados por coma (null si no tiene roles)
+     */
+    String getRoles();
+}
@@ -1,9 +1,16 @@
 package com.microservices.auth.infrastructure.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA Repository
@@ -15,7 +22,67 @@ public interface UserJpaRepository extends JpaRepository<UserJpaEntity, Long> {
 
     Optional<UserJpaEntity> findByEmail(String email);
 
+    /**
+     * Transacción propia de solo esta consulta (el login no abre ninguna) y en el primario: sin
+     * readOnly, porque rellena la caché de credenciales
+     */
+    @Transactional
+    @Query(value = """
+        SELECT u.id AS id, u.username AS username, u.password AS passwordHash, u.enabled AS enabled,
+               string_agg(r.role, ',') AS roles
+        FROM users u
+        LEFT JOIN user_roles r ON r.user_id = u.id
+        WHERE u.username = :username
+        GROUP BY u.id, u.username, u.password, u.enabled
+        """, nativeQuery = true)
+    Optional<UserCredentialsView> findCredentialsByUsername(@Param("username") String username);
+
+    @Query(value = """
+        SELECT u.id AS id, u.username AS username, u.email AS email, u.first_name AS firstName,
+               u.last_name AS lastName, u.enabled AS enabled, string_agg(r.role, ',') AS roles
+        FROM users u
+        LEFT JOIN user_roles r ON r.user_id = u.id
+        WHERE u.id > :afterId
+        GROUP BY u.id
+        ORDER BY u.id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UserSummaryView> findSummariesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Recorre los usuarios con un cursor JDBC (usa hibernate.jdbc.fetch_size); requiere transacción
+     */
+    @Query(value = """
+        SELECT u.id AS id, u.username AS username, u.email AS email, u.first_name AS firstName,
+               u.last_name AS lastName, u.enabled AS enabled, string_agg(r.role, ',') AS roles
+        FROM users u
+        LEFT JOIN user_roles r ON r.user_id = u.id
+        WHERE u.id > :afterId
+        GROUP BY u.id
+        ORDER BY u.id
+        """, nativeQuery = true)
+    Stream<UserSummaryView> streamSummariesAfter(@Param("afterId") long afterId);
+
+    @Modifying
+    @Query("UPDATE UserJpaEntity u SET u.password = :newHash, u.updatedAt = CURRENT_TIMESTAMP "
+        + "WHERE u.id = :id AND u.password = :currentHash")
+    int updatePasswordHash(@Param("id") Long id,
+                           @Param("currentHash") String currentHash,
+                           @Param("newHash") String newHash);
+
+    @Query("SELECT u.email FROM UserJpaEntity u WHERE u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
+    @Query("SELECT u.username AS username, u.email AS email FROM UserJpaEntity u WHERE u.id = :id")
+    Optional<UserKeysView> findKeysById(@Param("id") Long id);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.username FROM UserJpaEntity u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM UserJpaEntity u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,11 @@
+package com.microservices.auth.infrastructure.persistence;
+
+/**
+ * Proyección de Spring Data con las claves de caché de un usuario (username y email)
+ */
+public interface UserKeysView {
+
+    String getUsername();
+
+    String getEmail();
+}
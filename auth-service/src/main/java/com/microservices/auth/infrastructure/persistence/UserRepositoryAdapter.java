@@ -1,15 +1,28 @@
 package com.microservices.auth.infrastructure.persistence;
 
+import com.microservices.auth.domain.model.UserCredentials;
 import com.microservices.auth.domain.model.UserEntity;
 import com.microservices.auth.domain.repository.UserRepositoryPort;
+import com.microservices.auth.infrastructure.cache.UserExistenceFilter;
+import com.microservices.auth.infrastructure.config.CacheConfig;
 import io.vavr.control.Option;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Adaptador de persistencia - Implementa el puerto UserRepositoryPort (Hexagonal)
@@ -21,9 +34,12 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
 
     private final UserJpaRepository jpaRepository;
     private final UserMapper userMapper;
+    private final UserBatchWriter batchWriter;
+    private final CacheManager cacheManager;
+    private final UserExistenceFilter existenceFilter;
 
     @Override
-    //@Cacheable(value = "users", key = "#username")  // DISABLED FOR DEBUG
+    @Cacheable(value = CacheConfig.USERS_BY_USERNAME, key = "#username", unless = "#result.isEmpty()")
     public Option<UserEntity> findByUsername(String username) {
         log.info("🔍 Buscando usuario en BD: {}", username);
         log.debug("📝 Ejecutando jpaRepository.findByUsername('{}')", username);
@@ -35,7 +51,17 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
     }
 
     @Override
-    @Cacheable(value = "users", key = "#email")
+    @Cacheable(value = CacheConfig.USER_CREDENTIALS, key = "#username", unless = "#result.isEmpty()")
+    public Option<UserCredentials> findCredentialsByUsername(String username) {
+        log.debug("Buscando credenciales en BD: {}", username);
+        return Option.ofOptional(
+            jpaRepository.findCredentialsByUsername(username)
+                .map(this::toCredentials)
+        );
+    }
+
+    @Override
+    @Cacheable(value = CacheConfig.USERS_BY_EMAIL, key = "#email", unless = "#result.isEmpty()")
     public Option<UserEntity> findByEmail(String email) {
         log.debug("Buscando usuario por email: {}", email);
         return Option.ofOptional(
@@ -45,7 +71,7 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
     }
 
     @Override
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = CacheConfig.USERS_BY_ID, key = "#id", unless = "#result.isEmpty()")
     public Option<UserEntity> findById(Long id) {
         log.debug("Buscando usuario por ID: {}", id);
         return Option.ofOptional(
@@ -55,23 +81,81 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
     }
 
     @Override
-    @CacheEvict(value = "users", allEntries = true)
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.USERS_BY_ID, key = "#result.id"),
+        @CacheEvict(value = CacheConfig.USERS_BY_USERNAME, key = "#result.username"),
+        @CacheEvict(value = CacheConfig.USERS_BY_EMAIL, key = "#result.email"),
+        @CacheEvict(value = CacheConfig.USER_CREDENTIALS, key = "#result.username")
+    })
     public UserEntity save(UserEntity user) {
         log.debug("Guardando usuario: {}", user.getUsername());
+        // Claves anteriores: si cambian username o email, sus entradas (con el hash) seguirían válidas hasta el TTL
+        var previous = user.getId() == null ? Optional.<UserKeysView>empty() : jpaRepository.findKeysById(user.getId());
         UserJpaEntity jpaEntity = userMapper.toJpa(user);
         UserJpaEntity saved = jpaRepository.save(jpaEntity);
+        previous.ifPresent(keys -> {
+            evict(CacheConfig.USERS_BY_USERNAME, List.of(keys.getUsername()));
+            evict(CacheConfig.USER_CREDENTIALS, List.of(keys.getUsername()));
+            if (keys.getEmail() != null) {
+                evict(CacheConfig.USERS_BY_EMAIL, List.of(keys.getEmail()));
+            }
+        });
+        existenceFilter.addAfterCommit(saved.getUsername(), saved.getEmail());
         return userMapper.toDomain(saved);
     }
 
     @Override
-    public List<UserEntity> findAll() {
-        log.debug("Obteniendo todos los usuarios");
-        return jpaRepository.findAll()
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.USERS_BY_ID, key = "#credentials.id"),
+        @CacheEvict(value = CacheConfig.USERS_BY_USERNAME, key = "#credentials.username"),
+        @CacheEvict(value = CacheConfig.USER_CREDENTIALS, key = "#credentials.username")
+    })
+    public boolean updatePasswordHash(UserCredentials credentials, String newHash) {
+        log.debug("Actualizando hash de contraseña: {}", credentials.getUsername());
+        boolean updated = jpaRepository.updatePasswordHash(credentials.getId(), credentials.getPasswordHash(), newHash) > 0;
+        if (updated) {
+            // La copia por email también lleva el hash, pero las credenciales no traen el email
+            jpaRepository.findEmailById(credentials.getId())
+                .ifPresent(email -> evict(CacheConfig.USERS_BY_EMAIL, List.of(email)));
+        }
+        return updated;
+    }
+
+    @Override
+    public List<UserEntity> insertAll(List<UserEntity> users) {
+        log.debug("Insertando lote de {} usuarios", users.size());
+        List<UserEntity> saved = batchWriter.insertAll(users);
+        saved.forEach(user -> existenceFilter.addAfterCommit(user.getUsername(), user.getEmail()));
+        // Búsquedas negativas previas (Option.none) quedarían cacheadas para estos usuarios
+        evict(CacheConfig.USERS_BY_USERNAME, saved.stream().map(UserEntity::getUsername).toList());
+        evict(CacheConfig.USER_CREDENTIALS, saved.stream().map(UserEntity::getUsername).toList());
+        evict(CacheConfig.USERS_BY_EMAIL, saved.stream().map(UserEntity::getEmail).toList());
+        return saved;
+    }
+
+    @Override
+    public List<UserEntity> findPage(long afterId, int limit) {
+        log.debug("Obteniendo página de usuarios tras id {} (limit {})", afterId, limit);
+        return jpaRepository.findSummariesAfter(afterId, limit)
             .stream()
-            .map(userMapper::toDomain)
+            .map(this::toDomain)
             .toList();
     }
 
+    @Override
+    public long forEachAfter(long afterId, Consumer<UserEntity> consumer) {
+        log.debug("Recorriendo usuarios tras id {}", afterId);
+        long count = 0;
+        try (Stream<UserSummaryView> rows = jpaRepository.streamSummariesAfter(afterId)) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(toDomain(iterator.next()));
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public boolean existsByEmail(String email) {
         return jpaRepository.existsByEmail(email);
@@ -81,4 +165,61 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
     public boolean existsByUsername(String username) {
         return jpaRepository.existsByUsername(username);
     }
+
+    @Override
+    public boolean mightExistByUsername(String username) {
+        return existenceFilter.mightContainUsername(username);
+    }
+
+    @Override
+    public boolean mightExistByEmail(String email) {
+        return existenceFilter.mightContainEmail(email);
+    }
+
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        List<String> candidates = usernames.stream().filter(existenceFilter::mightContainUsername).toList();
+        return candidates.isEmpty() ? Set.of() : new HashSet<>(jpaRepository.findExistingUsernames(candidates));
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        List<String> candidates = emails.stream().filter(existenceFilter::mightContainEmail).toList();
+        return candidates.isEmpty() ? Set.of() : new HashSet<>(jpaRepository.findExistingEmails(candidates));
+    }
+
+    private void evict(String cacheName, Collection<String> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    private UserCredentials toCredentials(UserCredentialsView view) {
+        return UserCredentials.builder()
+            .id(view.getId())
+            .username(view.getUsername())
+            .passwordHash(view.getPasswordHash())
+            .enabled(Boolean.TRUE.equals(view.getEnabled()))
+            .roles(splitRoles(view.getRoles()))
+            .build();
+    }
+
+    private UserEntity toDomain(UserSummaryView view) {
+        return UserEntity.builder()
+            .id(view.getId())
+            .username(view.getUsername())
+            .email(view.getEmail())
+            .firstName(view.getFirstName())
+            .lastName(view.getLastName())
+            .enabled(Boolean.TRUE.equals(view.getEnabled()))
+            .roles(splitRoles(view.getRoles()))
+            .build();
+    }
+
+    private static Set<String> splitRoles(String roles) {
+        return roles == null
+            ? new HashSet<>()
+            : new HashSet<>(Arrays.asList(roles.split(",")));
+    }
 }
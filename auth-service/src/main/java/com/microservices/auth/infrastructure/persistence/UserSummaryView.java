@@ -0,0 +1,24 @@
+package com.microservices.auth.infrastructure.persistence;
+
+/**
+ * Proyección de Spring Data para listados de usuarios (sin contraseña)
+ */
+public interface UserSummaryView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Boolean getEnabled();
+
+    /**
+     * Roles agregados en SQL, separados por coma (null si no tiene roles)
+     */
+    String getRoles();
+}
@@ -0,0 +1,54 @@
+package com.microservices.auth.infrastructure.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Calibra el coste de BCrypt midiendo el tiempo de hash en el host contra un presupuesto de latencia
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+        throw new AssertionError("No instances");
+    }
+
+    /**
+     * Devuelve el mayor coste en [minCost, maxCost] cuyo hash no supera el presupuesto
+     */
+    public static int calibrate(Duration budget, int minCost, int maxCost) {
+        long budgetNanos = budget.toNanos();
+        int cost = minCost;
+        long elapsed = measure(cost);
+
+        // Cada incremento de coste duplica el tiempo de hash
+        while (cost < maxCost && elapsed * 2 <= budgetNanos) {
+            cost++;
+            elapsed = measure(cost);
+        }
+        while (cost > minCost && elapsed > budgetNanos) {
+            cost--;
+            elapsed = measure(cost);
+        }
+
+        log.info("Coste BCrypt calibrado: {} ({} ms por hash, presupuesto {} ms)",
+            cost, Duration.ofNanos(elapsed).toMillis(), budget.toMillis());
+        return cost;
+    }
+
+    private static long measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
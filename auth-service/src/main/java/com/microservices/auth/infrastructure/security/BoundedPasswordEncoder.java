@@ -0,0 +1,153 @@
+package com.microservices.auth.infrastructure.security;
+
+import com.microservices.auth.domain.port.PasswordHashingPort;
+import com.microservices.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que ejecuta el hashing en un pool acotado fuera de los hilos de Tomcat.
+ * Si la cola está llena o la espera supera el máximo, falla rápido con ServiceOverloadedException.
+ * encodeAsync usa el mismo pool sin bloquear al llamante (importaciones masivas).
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, PasswordHashingPort, DisposableBean {
+
+    private static final String METRIC_PREFIX = "auth.password.hash";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+
+    private final Timer encodeWaitTimer;
+    private final Timer encodeHashTimer;
+    private final Timer matchesWaitTimer;
+    private final Timer matchesHashTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  Duration maxWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeWaitTimer = timer(meterRegistry, "wait", "encode");
+        this.encodeHashTimer = timer(meterRegistry, "duration", "encode");
+        this.matchesWaitTimer = timer(meterRegistry, "wait", "matches");
+        this.matchesHashTimer = timer(meterRegistry, "duration", "matches");
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+            .description("Operaciones de hashing rechazadas por saturación")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue", executor, e -> e.getQueue().size())
+            .description("Operaciones de hashing en cola")
+            .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Hilos de hashing ocupados")
+            .register(meterRegistry);
+
+        log.info("Pool de hashing inicializado: {} hilos, cola de {}", threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeWaitTimer, encodeHashTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchesWaitTimer, matchesHashTimer);
+    }
+
+    @Override
+    public CompletableFuture<String> encodeAsync(String rawPassword) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                encodeWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return encodeHashTimer.record(() -> delegate.encode(rawPassword));
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new ServiceOverloadedException("Password hashing capacity exceeded", e));
+        }
+    }
+
+    @Override
+    public int parallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> hashing, Timer waitTimer, Timer hashTimer) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(hashing);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException("Password hashing capacity exceeded", e);
+        }
+
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException("Password hashing wait time exceeded", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String name, String operation) {
+        return Timer.builder(METRIC_PREFIX + "." + name)
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.microservices.auth.infrastructure.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Anillo de claves RSA en memoria para firmar JWT.
+ * Mantiene la clave siguiente (publicada antes de usarse), la actual y la anterior,
+ * de modo que los JWKS cacheados por los resource servers siempre validan los tokens vigentes.
+ * Como JWKSource sustituye a la clave aleatoria que autoconfigura el authorization server.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing implements JWKSource<SecurityContext> {
+
+    private static final int KEY_SIZE = 2048;
+
+    private volatile Snapshot snapshot;
+
+    public JwtKeyRing() {
+        RSAKey current = generateKey();
+        RSAKey next = generateKey();
+        this.snapshot = Snapshot.of(List.of(next, current), current);
+        log.info("Anillo de claves JWT inicializado, kid activo: {}", current.getKeyID());
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) {
+        return jwkSelector.select(snapshot.privateJwkSet());
+    }
+
+    /**
+     * Clave privada activa para firmar
+     */
+    public RSAKey signingKey() {
+        return snapshot.signingKey();
+    }
+
+    /**
+     * JWKS público serializado (solo claves públicas)
+     */
+    public String publicJwkSetJson() {
+        return snapshot.publicJson();
+    }
+
+    /**
+     * ETag fuerte del JWKS público actual
+     */
+    public String etag() {
+        return snapshot.etag();
+    }
+
+    /**
+     * Rota: la clave siguiente pasa a activa, se genera una nueva siguiente y se descarta la más antigua
+     */
+    @Scheduled(initialDelayString = "${app.jwt.key-rotation:24h}", fixedDelayString = "${app.jwt.key-rotation:24h}")
+    public synchronized void rotate() {
+        Snapshot previous = snapshot;
+        RSAKey newCurrent = previous.keys().get(0);
+        RSAKey retiring = previous.signingKey();
+        this.snapshot = Snapshot.of(List.of(generateKey(), newCurrent, retiring), newCurrent);
+        log.info("Claves JWT rotadas, kid activo: {}", newCurrent.getKeyID());
+    }
+
+    private static RSAKey generateKey() {
+        try {
+            return new RSAKeyGenerator(KEY_SIZE)
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.RS256)
+                .keyID(UUID.randomUUID().toString())
+                .issueTime(new Date())
+                .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot generate RSA signing key", e);
+        }
+    }
+
+    private record Snapshot(List<RSAKey> keys, RSAKey signingKey, JWKSet privateJwkSet,
+                            String publicJson, String etag) {
+
+        static Snapshot of(List<RSAKey> keys, RSAKey signingKey) {
+            List<JWK> privateKeys = new ArrayList<>(keys);
+            List<JWK> publicKeys = new ArrayList<>(keys.size());
+            keys.forEach(key -> publicKeys.add(key.toPublicJWK()));
+            String json = new JWKSet(publicKeys).toString(true);
+            return new Snapshot(List.copyOf(keys), signingKey, new JWKSet(privateKeys), json, etagOf(json));
+        }
+
+        private static String etagOf(String json) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+                return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.microservices.auth.infrastructure.security;
+
+import com.microservices.auth.domain.model.AccessToken;
+import com.microservices.auth.domain.model.UserCredentials;
+import com.microservices.auth.domain.port.TokenIssuerPort;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Emisor de JWT firmados con la clave activa del anillo (claim roles para los resource servers)
+ */
+@Component
+public class JwtTokenIssuer implements TokenIssuerPort {
+
+    private final JwtKeyRing keyRing;
+    private final JwtEncoder jwtEncoder;
+    private final String issuer;
+    private final Duration tokenTtl;
+
+    public JwtTokenIssuer(JwtKeyRing keyRing,
+                          @Value("${app.jwt.issuer}") String issuer,
+                          @Value("${app.jwt.access-token-ttl:15m}") Duration tokenTtl) {
+        this.keyRing = keyRing;
+        this.issuer = issuer;
+        this.tokenTtl = tokenTtl;
+        this.jwtEncoder = new NimbusJwtEncoder(keyRing);
+    }
+
+    @Override
+    public AccessToken issue(UserCredentials credentials) {
+        RSAKey signingKey = keyRing.signingKey();
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(tokenTtl);
+
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuer(issuer)
+            .subject(String.valueOf(credentials.getId()))
+            .id(UUID.randomUUID().toString())
+            .issuedAt(now)
+            .expiresAt(expiresAt)
+            .claim("preferred_username", credentials.getUsername())
+            .claim("roles", List.copyOf(credentials.getRoles()))
+            .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256)
+            .keyId(signingKey.getKeyID())
+            .build();
+
+        String tokenValue = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return new AccessToken(tokenValue, now, expiresAt);
+    }
+}
@@ -0,0 +1,235 @@
+package com.microservices.auth.infrastructure.security;
+
+import com.microservices.auth.domain.port.LoginThrottlePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Limitador de intentos fallidos de login por usuario y por IP, en memoria (contadores con stripes)
+ * y opcionalmente sincronizado en Redis. Se consulta antes de ir a la BD o al PasswordEncoder.
+ */
+@Slf4j
+@Component
+public class LoginAttemptThrottle implements LoginThrottlePort {
+
+    static final String USERNAME = "username";
+    static final String IP = "ip";
+
+    private final Scope usernames;
+    private final Scope ips;
+    private final RedisLoginAttemptStore redisStore;
+    private final Counter syncErrors;
+    private final Clock clock = Clock.systemUTC();
+
+    public LoginAttemptThrottle(MeterRegistry meterRegistry,
+                                ObjectProvider<RedisLoginAttemptStore> redisStore,
+                                @Value("${app.security.login-throttle.window:15m}") Duration window,
+                                @Value("${app.security.login-throttle.buckets:15}") int buckets,
+                                @Value("${app.security.login-throttle.lockout:15m}") Duration lockout,
+                                @Value("${app.security.login-throttle.username.max-failures:5}") int usernameMaxFailures,
+                                @Value("${app.security.login-throttle.ip.max-failures:50}") int ipMaxFailures,
+                                @Value("${app.security.login-throttle.stripes:64}") int stripes,
+                                @Value("${app.security.login-throttle.max-keys:100000}") int maxKeys) {
+        this.usernames = new Scope(USERNAME, window, buckets, lockout,
+            new StripedAttemptCounter(stripes, window, buckets, usernameMaxFailures, lockout, maxKeys), meterRegistry);
+        this.ips = new Scope(IP, window, buckets, lockout,
+            new StripedAttemptCounter(stripes, window, buckets, ipMaxFailures, lockout, maxKeys), meterRegistry);
+        this.redisStore = redisStore.getIfAvailable();
+        this.syncErrors = Counter.builder("auth.login.throttle.sync.errors")
+            .description("Errores sincronizando intentos fallidos con Redis")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Duration lockoutRemaining(String username, String clientIp) {
+        long now = clock.millis();
+        long until = Math.max(usernames.lockedUntil(username, now), ips.lockedUntil(clientIp, now));
+        if (until == 0 && redisStore != null) {
+            until = remoteLockedUntil(username, clientIp, now);
+        }
+        if (until <= now) {
+            return Duration.ZERO;
+        }
+        (usernames.lockedUntil(username, now) > now ? usernames : ips).rejected.increment();
+        return Duration.ofMillis(until - now);
+    }
+
+    @Override
+    public void recordFailure(String username, String clientIp) {
+        long now = clock.millis();
+        usernames.recordFailure(username, now);
+        ips.recordFailure(clientIp, now);
+    }
+
+    @Override
+    public void recordSuccess(String username, String clientIp) {
+        if (username == null) {
+            return;
+        }
+        usernames.counter.reset(username);
+        if (redisStore != null) {
+            try {
+                redisStore.reset(USERNAME, username);
+            } catch (DataAccessException e) {
+                syncFailed(e);
+            }
+        }
+    }
+
+    /**
+     * Estado de los contadores por dimensión (endpoint de actuator)
+     */
+    public Map<String, Object> snapshot(int limit) {
+        long now = clock.millis();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("redisSync", redisStore != null);
+        snapshot.put(USERNAME, usernames.snapshot(now, limit));
+        snapshot.put(IP, ips.snapshot(now, limit));
+        return snapshot;
+    }
+
+    /**
+     * Estado de una clave concreta (endpoint de actuator)
+     */
+    public Map<String, Object> snapshot(String scope, String key) {
+        Scope target = USERNAME.equals(scope) ? usernames : IP.equals(scope) ? ips : null;
+        if (target == null) {
+            return null;
+        }
+        long now = clock.millis();
+        long until = target.counter.lockedUntil(key, now);
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("key", key);
+        snapshot.put("failures", target.counter.failures(key, now));
+        snapshot.put("maxFailures", target.counter.maxFailures());
+        snapshot.put("lockedForSeconds", until == 0 ? 0 : Duration.ofMillis(until - now).toSeconds());
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.purge-interval:1m}")
+    public void purge() {
+        long now = clock.millis();
+        int removed = usernames.counter.purge(now) + ips.counter.purge(now);
+        if (removed > 0) {
+            log.debug("Contadores de login caducados eliminados: {}", removed);
+        }
+    }
+
+    private long remoteLockedUntil(String username, String clientIp, long now) {
+        List<String> scopes = new ArrayList<>(2);
+        List<String> keys = new ArrayList<>(2);
+        if (username != null) {
+            scopes.add(USERNAME);
+            keys.add(username);
+        }
+        if (clientIp != null) {
+            scopes.add(IP);
+            keys.add(clientIp);
+        }
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        try {
+            long[] until = redisStore.lockedUntil(scopes, keys);
+            long max = 0;
+            for (int i = 0; i < until.length; i++) {
+                if (until[i] > now) {
+                    // Se replica el bloqueo en local para no volver a Redis en cada intento
+                    (USERNAME.equals(scopes.get(i)) ? usernames : ips).counter.lock(keys.get(i), until[i]);
+                    max = Math.max(max, until[i]);
+                }
+            }
+            return max;
+        } catch (DataAccessException e) {
+            syncFailed(e);
+            return 0;
+        }
+    }
+
+    private void syncFailed(DataAccessException e) {
+        syncErrors.increment();
+        log.warn("Sin sincronización de intentos de login con Redis, se usa solo el estado local: {}", e.getMessage());
+    }
+
+    private final class Scope {
+
+        private final String name;
+        private final Duration window;
+        private final int buckets;
+        private final Duration lockout;
+        private final StripedAttemptCounter counter;
+        private final Counter rejected;
+        private final Counter lockouts;
+
+        private Scope(String name, Duration window, int buckets, Duration lockout,
+                      StripedAttemptCounter counter, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.window = window;
+            this.buckets = buckets;
+            this.lockout = lockout;
+            this.counter = counter;
+            this.rejected = Counter.builder("auth.login.throttle.rejected")
+                .description("Intentos de login rechazados por bloqueo")
+                .tag("scope", name)
+                .register(meterRegistry);
+            this.lockouts = Counter.builder("auth.login.throttle.lockouts")
+                .description("Bloqueos por exceso de intentos fallidos")
+                .tag("scope", name)
+                .register(meterRegistry);
+            Gauge.builder("auth.login.throttle.tracked", counter, StripedAttemptCounter::size)
+                .description("Claves con intentos fallidos en memoria")
+                .tag("scope", name)
+                .register(meterRegistry);
+        }
+
+        private long lockedUntil(String key, long now) {
+            return key == null ? 0 : counter.lockedUntil(key, now);
+        }
+
+        private void recordFailure(String key, long now) {
+            if (key == null) {
+                return;
+            }
+            long lockedUntil = counter.recordFailure(key, now);
+            if (redisStore != null) {
+                try {
+                    if (redisStore.recordFailure(name, key, now, window, buckets, counter.maxFailures(), lockout)) {
+                        counter.lock(key, now + lockout.toMillis());
+                        lockedUntil = Math.max(lockedUntil, now + lockout.toMillis());
+                    }
+                } catch (DataAccessException e) {
+                    syncFailed(e);
+                }
+            }
+            if (lockedUntil > 0) {
+                lockouts.increment();
+                log.warn("Bloqueado {} {} por exceso de intentos fallidos", name, key);
+            }
+        }
+
+        private Map<String, Object> snapshot(long now, int limit) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("tracked", counter.size());
+            snapshot.put("maxFailures", counter.maxFailures());
+            Map<String, Long> locked = new LinkedHashMap<>();
+            counter.lockedKeys(now, limit)
+                .forEach((key, until) -> locked.put(key, Duration.ofMillis(until - now).toSeconds()));
+            snapshot.put("lockedForSeconds", locked);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.microservices.auth.infrastructure.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Endpoint de actuator con el estado de los contadores de intentos fallidos de login (usuarios e IPs
+ * bloqueados). Solo se expone por JMX: /actuator/** es público en este servicio.
+ */
+@Component
+@Endpoint(id = "loginthrottle")
+@RequiredArgsConstructor
+public class LoginThrottleEndpoint {
+
+    private static final int MAX_LISTED_KEYS = 100;
+
+    private final LoginAttemptThrottle throttle;
+
+    @ReadOperation
+    public Map<String, Object> summary() {
+        return throttle.snapshot(MAX_LISTED_KEYS);
+    }
+
+    @ReadOperation
+    public Map<String, Object> key(@Selector String scope, @Selector String key) {
+        return throttle.snapshot(scope, key);
+    }
+}
@@ -0,0 +1,100 @@
+package com.microservices.auth.infrastructure.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado de intentos fallidos compartido en Redis entre instancias de auth-service.
+ * Cada clave guarda un hash bucket -> fallos y, al superar el máximo, un lock con el instante de fin.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.login-throttle.redis.enabled", havingValue = "true")
+public class RedisLoginAttemptStore {
+
+    private static final String PREFIX = "login-throttle:";
+
+    /**
+     * KEYS[1] = hash de buckets, KEYS[2] = lock. ARGV = bucket actual, buckets de la ventana,
+     * TTL de la ventana (ms), máximo de fallos, fin del bloqueo (epoch ms), duración del bloqueo (ms).
+     * Devuelve el total de fallos en la ventana (o -1 si este fallo provoca el bloqueo).
+     */
+    private static final RedisScript<Long> RECORD_FAILURE = new DefaultRedisScript<>("""
+        local current = tonumber(ARGV[1])
+        local buckets = tonumber(ARGV[2])
+        redis.call('HINCRBY', KEYS[1], ARGV[1], 1)
+        redis.call('PEXPIRE', KEYS[1], ARGV[3])
+        local total = 0
+        local fields = redis.call('HGETALL', KEYS[1])
+        for i = 1, #fields, 2 do
+          if current - tonumber(fields[i]) < buckets then
+            total = total + tonumber(fields[i + 1])
+          else
+            redis.call('HDEL', KEYS[1], fields[i])
+          end
+        end
+        if total >= tonumber(ARGV[4]) then
+          redis.call('SET', KEYS[2], ARGV[5], 'PX', ARGV[6])
+          redis.call('DEL', KEYS[1])
+          return -1
+        end
+        return total
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLoginAttemptStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Registra un fallo; true si con él se alcanza el máximo y queda bloqueada la clave
+     */
+    boolean recordFailure(String scope, String key, long now, Duration window, int buckets,
+                          int maxFailures, Duration lockout) {
+        long bucketMillis = Math.max(1, window.toMillis() / buckets);
+        Long result = redisTemplate.execute(RECORD_FAILURE,
+            List.of(failuresKey(scope, key), lockKey(scope, key)),
+            String.valueOf(now / bucketMillis),
+            String.valueOf(buckets),
+            String.valueOf(window.toMillis()),
+            String.valueOf(maxFailures),
+            String.valueOf(now + lockout.toMillis()),
+            String.valueOf(lockout.toMillis()));
+        return result != null && result < 0;
+    }
+
+    /**
+     * Fin de bloqueo (epoch ms) de cada par scope/clave en una sola ida y vuelta (MGET); 0 si no hay
+     */
+    long[] lockedUntil(List<String> scopes, List<String> keys) {
+        List<String> lockKeys = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            lockKeys.add(lockKey(scopes.get(i), keys.get(i)));
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(lockKeys);
+        long[] until = new long[keys.size()];
+        for (int i = 0; values != null && i < values.size(); i++) {
+            until[i] = values.get(i) == null ? 0 : Long.parseLong(values.get(i));
+        }
+        return until;
+    }
+
+    void reset(String scope, String key) {
+        redisTemplate.delete(failuresKey(scope, key));
+    }
+
+    private static String failuresKey(String scope, String key) {
+        return PREFIX + scope + ":failures:" + key;
+    }
+
+    private static String lockKey(String scope, String key) {
+        return PREFIX + scope + ":lock:" + key;
+    }
+}
@@ -0,0 +1,254 @@
+package com.microservices.auth.infrastructure.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contador de intentos fallidos por clave en ventana deslizante (buckets de tiempo), con bloqueo
+ * temporal al alcanzar el máximo. El mapa se reparte en stripes con su propio lock para que
+ * claves distintas no compitan entre sí. Cada stripe está acotado: con él lleno, una clave nueva
+ * desplaza a la usada hace más tiempo, antes a una sin bloqueo vigente.
+ */
+class StripedAttemptCounter {
+
+    private final ReentrantLock[] locks;
+    private final Map<String, Window>[] stripes;
+    private final int mask;
+    private final int buckets;
+    private final long bucketMillis;
+    private final int maxFailures;
+    private final long lockoutMillis;
+    private final int maxKeysPerStripe;
+
+    @SuppressWarnings("unchecked")
+    StripedAttemptCounter(int stripeCount, Duration window, int buckets, int maxFailures,
+                          Duration lockout, int maxKeys) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.stripes = new Map[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            // Orden de acceso: la primera clave es la usada hace más tiempo
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true);
+        }
+        this.mask = size - 1;
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+        this.maxFailures = maxFailures;
+        this.lockoutMillis = lockout.toMillis();
+        this.maxKeysPerStripe = Math.max(1, maxKeys / size);
+    }
+
+    /**
+     * Instante (epoch ms) hasta el que la clave está bloqueada; 0 si no lo está
+     */
+    long lockedUntil(String key, long now) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            Window window = stripes[stripe].get(key);
+            return window != null && window.lockedUntil > now ? window.lockedUntil : 0;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Suma un fallo; devuelve el instante de fin de bloqueo si este fallo lo provoca, 0 si no
+     */
+    long recordFailure(String key, long now) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            Map<String, Window> map = stripes[stripe];
+            Window window = map.get(key);
+            if (window == null) {
+                if (map.size() >= maxKeysPerStripe && purge(map, now) == 0) {
+                    // Stripe lleno de claves activas: se cuenta igualmente, o inundar el stripe con claves
+                    // distintas dejaría sin contar los intentos y evitaría el bloqueo
+                    evictEldest(map, now);
+                }
+                window = new Window(buckets);
+                map.put(key, window);
+            }
+            long bucket = now / bucketMillis;
+            int slot = (int) (bucket % buckets);
+            if (window.bucketIds[slot] != bucket) {
+                window.bucketIds[slot] = bucket;
+                window.counts[slot] = 0;
+            }
+            window.counts[slot]++;
+            window.lastFailure = now;
+
+            if (window.lockedUntil <= now && window.failures(bucket) >= maxFailures) {
+                window.lockedUntil = now + lockoutMillis;
+                window.clearCounts();
+                return window.lockedUntil;
+            }
+            return 0;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Marca la clave como bloqueada hasta el instante dado (bloqueos sincronizados desde otra instancia)
+     */
+    void lock(String key, long until) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            Window window = stripes[stripe].computeIfAbsent(key, k -> new Window(buckets));
+            window.lockedUntil = Math.max(window.lockedUntil, until);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    void reset(String key) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            stripes[stripe].remove(key);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Fallos de la clave dentro de la ventana actual
+     */
+    int failures(String key, long now) {
+        int stripe = stripe(key);
+        locks[stripe].lock();
+        try {
+            Window window = stripes[stripe].get(key);
+            return window == null ? 0 : window.failures(now / bucketMillis);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Elimina las claves sin fallos en la ventana ni bloqueo vigente
+     */
+    int purge(long now) {
+        int removed = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                removed += purge(stripes[i], now);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            locks[i].lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Claves bloqueadas ahora mismo con su instante de fin de bloqueo (como mucho limit)
+     */
+    Map<String, Long> lockedKeys(long now, int limit) {
+        Map<String, Long> locked = new LinkedHashMap<>();
+        for (int i = 0; i < stripes.length && locked.size() < limit; i++) {
+            locks[i].lock();
+            try {
+                for (Map.Entry<String, Window> entry : stripes[i].entrySet()) {
+                    if (entry.getValue().lockedUntil > now) {
+                        locked.put(entry.getKey(), entry.getValue().lockedUntil);
+                        if (locked.size() >= limit) {
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return locked;
+    }
+
+    int maxFailures() {
+        return maxFailures;
+    }
+
+    private int purge(Map<String, Window> map, long now) {
+        int removed = 0;
+        long windowMillis = bucketMillis * buckets;
+        for (Iterator<Window> it = map.values().iterator(); it.hasNext(); ) {
+            Window window = it.next();
+            if (window.lockedUntil <= now && now - window.lastFailure >= windowMillis) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Desaloja la clave usada hace más tiempo sin bloqueo vigente o, si todas lo tienen, la más antigua
+     */
+    private static void evictEldest(Map<String, Window> map, long now) {
+        Iterator<Window> it = map.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().lockedUntil <= now) {
+                it.remove();
+                return;
+            }
+        }
+        it = map.values().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static final class Window {
+
+        private final long[] bucketIds;
+        private final int[] counts;
+        private long lastFailure;
+        private long lockedUntil;
+
+        private Window(int buckets) {
+            this.bucketIds = new long[buckets];
+            this.counts = new int[buckets];
+        }
+
+        private int failures(long currentBucket) {
+            int total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (currentBucket - bucketIds[i] < counts.length) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        private void clearCounts() {
+            Arrays.fill(counts, 0);
+        }
+    }
+}
@@ -1,15 +1,26 @@
 package com.microservices.auth.infrastructure.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.microservices.common.dto.ApiResponse;
+import com.microservices.common.dto.CursorPage;
 import com.microservices.auth.application.dto.RegisterRequest;
 import com.microservices.auth.application.dto.UserDto;
 import com.microservices.auth.domain.service.AuthenticationUseCase;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +35,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AuthenticationController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final AuthenticationUseCase authenticationUseCase;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<UserDto>> register(@RequestBody RegisterRequest request) {
@@ -57,12 +72,14 @@ public class AuthenticationController {
     }
 
     @PostMapping("/validate")
-    public ResponseEntity<?> validateCredentials(@RequestBody ValidateRequest request) {
-        log.info("🔐 Validando credenciales para usuario: {}", request.getUsername());
+    public ResponseEntity<?> validateCredentials(@RequestBody ValidateRequest request, HttpServletRequest httpRequest) {
+        // IP con la que se limitan los intentos: la del navegador si llega vía web-ui o gateway
+        log.info("🔐 Validando credenciales para usuario: {} desde {}", request.getUsername(), httpRequest.getRemoteAddr());
 
         var result = authenticationUseCase.validateCredentials(
             request.getUsername(),
-            request.getPassword()
+            request.getPassword(),
+            httpRequest.getRemoteAddr()
         );
 
         return result.fold(
@@ -85,21 +102,71 @@ public class AuthenticationController {
         );
     }
 
+    @PostMapping("/token")
+    public ResponseEntity<?> token(@RequestBody ValidateRequest request, HttpServletRequest httpRequest) {
+        log.info("Solicitud de token para usuario: {}", request.getUsername());
+
+        var result = authenticationUseCase.issueToken(
+            request.getUsername(), request.getPassword(), httpRequest.getRemoteAddr());
+
+        return result.fold(
+            error -> {
+                log.warn("❌ Token denegado para usuario: {} - Error: {}", request.getUsername(), error);
+                Map<String, Object> response = new HashMap<>();
+                response.put("error", "invalid_grant");
+                response.put("error_description", error);
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+            },
+            token -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("access_token", token.getTokenValue());
+                response.put("token_type", "Bearer");
+                response.put("expires_in", Duration.between(token.getIssuedAt(), token.getExpiresAt()).toSeconds());
+                return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(response);
+            }
+        );
+    }
+
+    /**
+     * GET condicional: con If-None-Match vigente responde 304 sin cuerpo. no-cache + ETag explícitos
+     * (si no, Spring Security añade no-store y el gateway no puede guardar la respuesta)
+     */
     @GetMapping("/users/{username}")
-    public ResponseEntity<ApiResponse<UserDto>> getUser(@PathVariable String username) {
+    public ResponseEntity<ApiResponse<UserDto>> getUser(
+            @PathVariable String username,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Buscando usuario: {}", username);
 
         var result = authenticationUseCase.getUserByUsername(username);
 
         return result.fold(
             error -> ResponseEntity.notFound().build(),
-            user -> ResponseEntity.ok(ApiResponse.ok(mapToDto(user), "User found"))
+            user -> {
+                UserDto dto = mapToDto(user);
+                String etag = UserETags.of(dto, objectMapper);
+                CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+                if (UserETags.matchesAny(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .build();
+                }
+                return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .body(ApiResponse.ok(dto, "User found"));
+            }
         );
     }
 
     @GetMapping("/users")
-    public ResponseEntity<ApiResponse<java.util.List<UserDto>>> getAllUsers() {
-        var result = authenticationUseCase.getAllUsers();
+    public ResponseEntity<ApiResponse<CursorPage<UserDto>>> getAllUsers(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        var result = authenticationUseCase.getUsersPage(after, pageSize);
 
         return result.fold(
             error -> ResponseEntity.internalServerError().build(),
@@ -107,11 +174,49 @@ public class AuthenticationController {
                 var dtos = users.stream()
                     .map(this::mapToDto)
                     .collect(Collectors.toList());
-                return ResponseEntity.ok(ApiResponse.ok(dtos, "Users retrieved"));
+                String nextCursor = dtos.size() < pageSize
+                    ? null
+                    : String.valueOf(dtos.get(dtos.size() - 1).getId());
+                return ResponseEntity.ok(ApiResponse.ok(CursorPage.of(dtos, nextCursor), "Users retrieved"));
             }
         );
     }
 
+    /**
+     * Exporta los usuarios como NDJSON, escribiendo cada fila según la entrega el cursor JDBC
+     */
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(defaultValue = "0") long after) {
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class);
+
+        StreamingResponseBody body = out -> {
+            var result = authenticationUseCase.streamUsers(after, user -> {
+                try {
+                    out.write(writer.writeValueAsBytes(mapToDto(user)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            result.fold(
+                error -> {
+                    log.error("Streaming de usuarios interrumpido: {}", error);
+                    // Aborta la conexión: terminar la respuesta con normalidad la haría pasar por un export completo
+                    throw new UncheckedIOException(new IOException("User stream interrupted: " + error));
+                },
+                count -> {
+                    log.info("Streaming de usuarios completado: {} filas", count);
+                    return null;
+                }
+            );
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
     @PostMapping("/users/{userId}/roles/{role}")
     public ResponseEntity<ApiResponse<UserDto>> assignRole(
             @PathVariable Long userId,
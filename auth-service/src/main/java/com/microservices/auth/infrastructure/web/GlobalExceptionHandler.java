@@ -0,0 +1,36 @@
+package com.microservices.auth.infrastructure.web;
+
+import com.microservices.common.dto.ErrorResponse;
+import com.microservices.common.exception.ServiceOverloadedException;
+import com.microservices.common.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Traducción de excepciones a respuestas HTTP
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(ServiceOverloadedException e) {
+        log.warn("Petición rechazada por saturación: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(ErrorResponse.of("SERVICE_OVERLOADED", e.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value()));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException e) {
+        log.warn("Petición rechazada por límite de intentos: {}", e.getMessage());
+        long retryAfter = Math.max(1, e.getRetryAfter().toSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+            .body(ErrorResponse.of("TOO_MANY_REQUESTS", e.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value()));
+    }
+}
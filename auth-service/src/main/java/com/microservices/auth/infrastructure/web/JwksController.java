@@ -0,0 +1,47 @@
+package com.microservices.auth.infrastructure.web;
+
+import com.microservices.auth.infrastructure.security.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publica el JWKS para verificación offline de tokens (ETag + Cache-Control)
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    @Value("${app.jwt.jwks-max-age:5m}")
+    private Duration jwksMaxAge;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = keyRing.etag();
+        CacheControl cacheControl = CacheControl.maxAge(jwksMaxAge).cachePublic();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
+        }
+
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .body(keyRing.publicJwkSetJson());
+    }
+}
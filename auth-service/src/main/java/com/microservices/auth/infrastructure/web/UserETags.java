@@ -0,0 +1,45 @@
+package com.microservices.auth.infrastructure.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.auth.application.dto.UserDto;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+
+/**
+ * ETags de usuario derivados de su representación JSON (la tabla users no tiene columna de versión)
+ */
+final class UserETags {
+
+    private UserETags() {
+    }
+
+    static String of(UserDto user, ObjectMapper objectMapper) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(user)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * true si alguna de las etiquetas de If-None-Match (o "*") coincide con el ETag actual
+     */
+    static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,52 @@
+package com.microservices.auth.infrastructure.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.auth.domain.model.UserImportResult;
+import com.microservices.auth.domain.service.UserImportUseCase;
+import com.microservices.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * Controlador REST - Importación masiva de usuarios (CSV o NDJSON en streaming)
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/auth/users/import")
+@RequiredArgsConstructor
+public class UserImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final UserImportUseCase userImportUseCase;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<UserImportResult>> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        log.info("Solicitud de importación masiva ({})", contentType);
+
+        var rows = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+            ? UserImportReader.ndjson(body, objectMapper)
+            : UserImportReader.csv(body);
+
+        var result = userImportUseCase.importUsers(rows);
+
+        return result.fold(
+            error -> ResponseEntity.internalServerError()
+                .body(ApiResponse.<UserImportResult>builder()
+                    .code("ERROR")
+                    .message(error)
+                    .status(500)
+                    .build()),
+            summary -> ResponseEntity.ok(ApiResponse.ok(summary, "Import finished"))
+        );
+    }
+}
@@ -0,0 +1,177 @@
+package com.microservices.auth.infrastructure.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.microservices.auth.application.dto.RegisterRequest;
+import com.microservices.auth.domain.model.UserImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Lee el cuerpo de una importación (CSV con cabecera o NDJSON) fila a fila, sin cargarlo en memoria
+ */
+final class UserImportReader implements Iterator<UserImportRow> {
+
+    private final BufferedReader reader;
+    private final BiFunction<Long, String, UserImportRow> lineParser;
+    private long lineNumber;
+    private UserImportRow next;
+
+    private UserImportReader(BufferedReader reader, long lineNumber, BiFunction<Long, String, UserImportRow> lineParser) {
+        this.reader = reader;
+        this.lineNumber = lineNumber;
+        this.lineParser = lineParser;
+    }
+
+    static UserImportReader ndjson(InputStream body, ObjectMapper objectMapper) {
+        ObjectReader requestReader = objectMapper.readerFor(RegisterRequest.class);
+        return new UserImportReader(open(body), 0, (line, text) -> {
+            try {
+                return toRow(line, requestReader.readValue(text));
+            } catch (JsonProcessingException e) {
+                return UserImportRow.invalid(line, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        });
+    }
+
+    static UserImportReader csv(InputStream body) {
+        BufferedReader reader = open(body);
+        String header = readLine(reader);
+        if (header == null) {
+            return new UserImportReader(reader, 1, (line, text) -> null);
+        }
+        List<String> columns = splitCsv(header);
+        Map<String, Integer> index = IntStream.range(0, columns.size()).boxed()
+            .collect(Collectors.toMap(i -> normalize(columns.get(i)), i -> i, (a, b) -> a));
+
+        return new UserImportReader(reader, 1, (line, text) -> {
+            List<String> fields = splitCsv(text);
+            if (fields.size() != columns.size()) {
+                return UserImportRow.invalid(line, "Expected " + columns.size() + " columns, got " + fields.size());
+            }
+            return UserImportRow.builder()
+                .line(line)
+                .username(field(fields, index, "username"))
+                .email(field(fields, index, "email"))
+                .password(rawField(fields, index, "password"))
+                .firstName(field(fields, index, "firstname"))
+                .lastName(field(fields, index, "lastname"))
+                .build();
+        });
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            String text = readLine(reader);
+            if (text == null) {
+                return false;
+            }
+            lineNumber++;
+            if (!text.isBlank()) {
+                next = lineParser.apply(lineNumber, text);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public UserImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        UserImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private static BufferedReader open(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private static String readLine(BufferedReader reader) {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static UserImportRow toRow(long line, RegisterRequest request) {
+        return UserImportRow.builder()
+            .line(line)
+            .username(request.getUsername())
+            .email(request.getEmail())
+            .password(request.getPassword())
+            .firstName(request.getFirstName())
+            .lastName(request.getLastName())
+            .build();
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> index, String column) {
+        String value = rawField(fields, index, column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Valor sin recortar: los espacios al principio o al final de una contraseña son parte de ella
+     */
+    private static String rawField(List<String> fields, Map<String, Integer> index, String column) {
+        Integer position = index.get(column);
+        if (position == null) {
+            return null;
+        }
+        String value = fields.get(position);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas dobles ("" como comilla escapada)
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
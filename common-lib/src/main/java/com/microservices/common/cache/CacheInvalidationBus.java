@@ -0,0 +1,177 @@
+package com.microservices.common.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bus de invalidación de cachés locales entre instancias sobre un canal pub/sub de Redis.
+ * Cada instancia numera sus mensajes; un hueco en la secuencia de otra instancia (mensaje perdido,
+ * pub/sub no garantiza entrega) o una resuscripción tras perder la conexión provoca un flush completo.
+ * La entrega debe ser en orden (listener container con SyncTaskExecutor).
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener, SubscriptionListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ChannelTopic topic;
+    private final String origin = UUID.randomUUID().toString();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private long sequence;
+
+    private final List<CacheInvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> lastSequences = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    private final Counter published;
+    private final Counter received;
+    private final Counter flushes;
+    private final Counter errors;
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, String channel, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.topic = new ChannelTopic(channel);
+        this.published = counter(meterRegistry, "cache.invalidation.published", "Invalidaciones publicadas");
+        this.received = counter(meterRegistry, "cache.invalidation.received", "Invalidaciones recibidas de otras instancias");
+        this.flushes = counter(meterRegistry, "cache.invalidation.flushes", "Flush completos por huecos en la secuencia o resuscripción");
+        this.errors = counter(meterRegistry, "cache.invalidation.errors", "Errores publicando o procesando invalidaciones");
+    }
+
+    public ChannelTopic topic() {
+        return topic;
+    }
+
+    public void addListener(CacheInvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Publica la invalidación de una clave (key null = toda la caché). Las claves deben ser String o Long.
+     */
+    public void publish(String cacheName, Object key) {
+        publishLock.lock();
+        try {
+            // La secuencia avanza aunque falle el envío: el resto verá el hueco y hará flush
+            long next = ++sequence;
+            String payload = objectMapper.writeValueAsString(Invalidation.of(origin, next, cacheName, key));
+            redisTemplate.convertAndSend(topic.getTopic(), payload);
+            published.increment();
+        } catch (JsonProcessingException | DataAccessException e) {
+            errors.increment();
+            log.warn("No se pudo publicar la invalidación de {} {}: {}", cacheName, key, e.getMessage());
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Publica cuando la transacción en curso confirma (o inmediatamente si no hay), para que otra
+     * instancia no vuelva a cargar el valor antiguo antes del commit. No usar desde un afterCommit.
+     */
+    public void publishAfterCommit(String cacheName, Object key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(cacheName, key);
+                }
+            });
+        } else {
+            publish(cacheName, key);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Invalidation invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), Invalidation.class);
+        } catch (Exception e) {
+            errors.increment();
+            log.warn("Invalidación ilegible descartada: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            flush("mensaje ilegible");
+            return;
+        }
+        if (origin.equals(invalidation.origin())) {
+            return;
+        }
+        received.increment();
+
+        Long previous = lastSequences.put(invalidation.origin(), invalidation.sequence());
+        if (previous != null && invalidation.sequence() != previous + 1) {
+            flush("hueco en la secuencia de " + invalidation.origin() + ": " + previous + " -> " + invalidation.sequence());
+        }
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.evict(invalidation.cache(), invalidation.typedKey());
+            } catch (RuntimeException e) {
+                errors.increment();
+                log.warn("Error aplicando la invalidación de {} {}", invalidation.cache(), invalidation.key(), e);
+            }
+        }
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        // La primera suscripción no ha perdido nada; las siguientes (reconexión) sí pueden haberlo hecho
+        if (!subscribed.compareAndSet(false, true)) {
+            flush("resuscripción al canal " + topic.getTopic());
+        }
+    }
+
+    private void flush(String reason) {
+        flushes.increment();
+        log.warn("Flush de cachés locales: {}", reason);
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.flush();
+            } catch (RuntimeException e) {
+                errors.increment();
+                log.warn("Error en el flush de cachés locales", e);
+            }
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name)
+            .description(description)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Mensaje del canal: la clave viaja como texto y numeric indica si era un Long
+     */
+    record Invalidation(String origin, long sequence, String cache, String key, boolean numeric) {
+
+        static Invalidation of(String origin, long sequence, String cache, Object key) {
+            if (key != null && !(key instanceof String) && !(key instanceof Long)) {
+                throw new IllegalArgumentException("Tipo de clave no soportado: " + key.getClass().getName());
+            }
+            return new Invalidation(origin, sequence, cache, key == null ? null : key.toString(), key instanceof Long);
+        }
+
+        Object typedKey() {
+            return key == null || !numeric ? key : Long.valueOf(key);
+        }
+    }
+}
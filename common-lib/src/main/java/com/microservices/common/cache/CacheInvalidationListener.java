@@ -0,0 +1,18 @@
+package com.microservices.common.cache;
+
+/**
+ * Receptor de invalidaciones publicadas por otras instancias en el CacheInvalidationBus
+ */
+public interface CacheInvalidationListener {
+
+    /**
+     * Una clave de la caché cambió en otra instancia; key null = toda la caché
+     */
+    void evict(String cacheName, Object key);
+
+    /**
+     * Se han podido perder invalidaciones (hueco en la secuencia o resuscripción):
+     * hay que descartar todo el estado local derivado de las cachés
+     */
+    void flush();
+}
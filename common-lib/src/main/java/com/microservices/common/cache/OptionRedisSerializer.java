@@ -0,0 +1,121 @@
+package com.microservices.common.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vavr.control.Option;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Serializador de valores de caché Option&lt;T&gt; con un EntityCodec. El primer byte es la etiqueta:
+ * 0 = Option.none (un solo byte en Redis), 1..254 = versión del esquema del valor presente,
+ * 255 = NullValue. Un valor que no se sabe leer (versión desconocida o formato anterior) se
+ * devuelve como null, es decir, como fallo de caché que se vuelve a cargar y sobrescribe.
+ */
+@Slf4j
+public class OptionRedisSerializer<T> implements RedisSerializer<Object> {
+
+    private static final int ABSENT = 0;
+    private static final int NULL_VALUE = 255;
+    private static final byte[] ABSENT_BYTES = {ABSENT};
+    private static final byte[] NULL_VALUE_BYTES = {(byte) NULL_VALUE};
+
+    private final String cacheName;
+    private final Class<T> type;
+    private final EntityCodec<T> codec;
+    private final DistributionSummary writeSizes;
+    private final DistributionSummary readSizes;
+    private final Counter unreadable;
+
+    public OptionRedisSerializer(String cacheName, Class<T> type, EntityCodec<T> codec, MeterRegistry meterRegistry) {
+        if (codec.version() < 1 || codec.version() >= NULL_VALUE) {
+            throw new IllegalArgumentException("Versión de esquema fuera de rango: " + codec.version());
+        }
+        this.cacheName = cacheName;
+        this.type = type;
+        this.codec = codec;
+        this.writeSizes = payloadSize(meterRegistry, cacheName, "write");
+        this.readSizes = payloadSize(meterRegistry, cacheName, "read");
+        this.unreadable = Counter.builder("cache.payload.unreadable")
+            .description("Valores de caché que no se pudieron decodificar y se trataron como fallo")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        byte[] bytes;
+        if (value instanceof NullValue) {
+            bytes = NULL_VALUE_BYTES;
+        } else if (value instanceof Option<?> option && option.isEmpty()) {
+            bytes = ABSENT_BYTES;
+        } else if (value instanceof Option<?> option && type.isInstance(option.get())) {
+            bytes = encode(type.cast(option.get()));
+        } else {
+            throw new SerializationException("Valor no soportado en la caché " + cacheName + ": " + value);
+        }
+        writeSizes.record(bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        readSizes.record(bytes.length);
+        int tag = bytes[0] & 0xFF;
+        if (tag == ABSENT) {
+            return Option.none();
+        }
+        if (tag == NULL_VALUE) {
+            return NullValue.INSTANCE;
+        }
+        if (tag > codec.version()) {
+            return skip("versión de esquema " + tag + " desconocida");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            return Option.of(codec.read(in, tag));
+        } catch (IOException | RuntimeException e) {
+            return skip(e.toString());
+        }
+    }
+
+    private byte[] encode(T value) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(codec.version());
+            codec.write(value, out);
+        } catch (IOException e) {
+            throw new SerializationException("No se pudo codificar el valor de la caché " + cacheName, e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private Object skip(String reason) {
+        unreadable.increment();
+        log.debug("Valor ilegible en la caché {}, se trata como fallo: {}", cacheName, reason);
+        return null;
+    }
+
+    private static DistributionSummary payloadSize(MeterRegistry meterRegistry, String cacheName, String operation) {
+        return DistributionSummary.builder("cache.payload.size")
+            .description("Tamaño de los valores de caché serializados")
+            .baseUnit("bytes")
+            .tag("cache", cacheName)
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(64.0 * 1024)
+            .register(meterRegistry);
+    }
+}
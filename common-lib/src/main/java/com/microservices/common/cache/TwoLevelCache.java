@@ -0,0 +1,112 @@
+package com.microservices.common.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caché de dos niveles: near-cache en memoria (L1) delante de una caché remota (L2).
+ * Las lecturas consultan L1 y, en caso de fallo, L2 rellenando L1; las escrituras
+ * y desalojos se aplican primero en L2 para no dejar L1 más nuevo que la fuente compartida.
+ * Con un CacheInvalidationBus, los desalojos se publican para que el resto de instancias descarte
+ * su L1 (evictLocal/clearLocal); put se trata como relleno tras un fallo y no se publica.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache local;
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoLevelCache(String name, Cache local, Cache remote) {
+        this(name, local, remote, null);
+    }
+
+    public TwoLevelCache(String name, Cache local, Cache remote, CacheInvalidationBus invalidationBus) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = local.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = remote.get(key);
+        if (value != null) {
+            local.put(key, value.get());
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        if (value == null) {
+            return null;
+        }
+        Object stored = value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException(
+                "Cached value is not of required type [" + type.getName() + "]: " + stored);
+        }
+        @SuppressWarnings("unchecked")
+        T result = (T) stored;
+        return result;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return local.get(key, () -> remote.get(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.evict(key);
+        publish(key);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.clear();
+        publish(null);
+    }
+
+    /**
+     * Descarta la entrada solo en L1 (invalidación recibida de otra instancia)
+     */
+    public void evictLocal(Object key) {
+        local.evict(key);
+    }
+
+    public void clearLocal() {
+        local.clear();
+    }
+
+    private void publish(Object key) {
+        if (invalidationBus != null) {
+            invalidationBus.publish(name, key);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.microservices.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reconstrucciones de una estructura en memoria (índice, filtro) de una en una. Las pedidas en segundo
+ * plano se ejecutan en el TaskScheduler de Spring, el mismo de las periódicas (@Scheduled); mientras
+ * haya una pendiente, las nuevas peticiones se ignoran.
+ */
+@Slf4j
+public class BackgroundRebuilder {
+
+    private final String name;
+    private final Runnable rebuild;
+    private final TaskScheduler scheduler;
+    private final AtomicBoolean requested = new AtomicBoolean();
+    // ReentrantLock y no synchronized: con hilos virtuales el recorrido de la tabla no fija el hilo portador
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public BackgroundRebuilder(String name, Runnable rebuild, TaskScheduler scheduler) {
+        this.name = name;
+        this.rebuild = rebuild;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Reconstruye en el hilo llamante, después de la que esté en curso
+     */
+    public void run() {
+        lock.lock();
+        try {
+            rebuild.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reconstrucción en segundo plano; las peticiones que llegan mientras hay una pendiente se ignoran
+     */
+    public void request() {
+        if (requested.compareAndSet(false, true)) {
+            try {
+                scheduler.schedule(() -> {
+                    requested.set(false);
+                    run();
+                }, Instant.now());
+            } catch (TaskRejectedException e) {
+                requested.set(false);
+                log.warn("Reconstrucción de {} descartada: {}", name, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.microservices.common.concurrent;
+
+import com.microservices.common.jdbc.ConnectionPermitDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Modo de hilos virtuales (spring.threads.virtual.enabled=true) de todos los servicios: peticiones,
+ * @Async y @Scheduled pasan a hilos virtuales. Se vigila el pinning y, en los servicios con Hikari, se
+ * limita con un semáforo el acceso al pool para que la demanda ilimitada de hilos no se agolpe sobre
+ * sus conexiones.
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HikariDataSource.class)
+    static class ConnectionPermitConfiguration {
+
+        /**
+         * Envuelve cada pool de Hikari; connection-permits=0 usa su maximum-pool-size y la espera
+         * máxima es su connection-timeout
+         */
+        @Bean
+        static BeanPostProcessor connectionPermitPostProcessor(
+                ObjectProvider<MeterRegistry> meterRegistry,
+                @Value("${app.datasource.connection-permits:0}") int connectionPermits) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof HikariDataSource hikari) {
+                        int permits = connectionPermits > 0 ? connectionPermits : hikari.getMaximumPoolSize();
+                        return new ConnectionPermitDataSource(hikari, beanName, permits,
+                            Duration.ofMillis(hikari.getConnectionTimeout()), meterRegistry.getObject());
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
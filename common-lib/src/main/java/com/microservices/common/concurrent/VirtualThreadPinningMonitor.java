@@ -0,0 +1,59 @@
+package com.microservices.common.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Expone como métricas los eventos JFR jdk.VirtualThreadPinned: un hilo virtual que bloquea dentro
+ * de un synchronized o de código nativo retiene su hilo portador y deja de escalar.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 5;
+
+    private final RecordingStream stream = new RecordingStream();
+    private final Counter pinned;
+    private final Timer pinnedDuration;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+            .description("Hilos virtuales que bloquearon su hilo portador más del umbral")
+            .register(meterRegistry);
+        this.pinnedDuration = Timer.builder("jvm.threads.virtual.pinned.duration")
+            .description("Duración de los bloqueos de hilos virtuales sobre su hilo portador")
+            .register(meterRegistry);
+
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info("Monitor de pinning de hilos virtuales activo (umbral {})", threshold);
+    }
+
+    private void record(RecordedEvent event) {
+        pinned.increment();
+        pinnedDuration.record(event.getDuration());
+        if (log.isDebugEnabled() && event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            log.debug("Hilo virtual bloqueado {} ms en {}", event.getDuration().toMillis(),
+                frames.subList(0, Math.min(LOGGED_FRAMES, frames.size())).stream()
+                    .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                    .toList());
+        }
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.microservices.common.dto;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Página de resultados con paginación por cursor (keyset)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class CursorPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> items;
+
+    /**
+     * Cursor opaco para pedir la siguiente página; null si no hay más resultados
+     */
+    private String nextCursor;
+
+    public static <T> CursorPage<T> of(List<T> items, String nextCursor) {
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.microservices.common.exception;
+
+import java.io.Serial;
+
+/**
+ * Excepción para peticiones rechazadas por falta de capacidad (admission control)
+ */
+public class ServiceOverloadedException extends DomainException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+
+    public ServiceOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package com.microservices.common.exception;
+
+import java.io.Serial;
+import java.time.Duration;
+
+/**
+ * Excepción para peticiones rechazadas por límite de intentos o de tasa
+ */
+public class TooManyRequestsException extends DomainException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,29 @@
+package com.microservices.common.exception;
+
+import java.io.Serial;
+
+/**
+ * Excepción para escrituras condicionadas a una versión que ya no es la actual (If-Match)
+ */
+public class VersionConflictException extends DomainException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Object identifier;
+    private final Long expectedVersion;
+
+    public VersionConflictException(Object identifier, Long expectedVersion) {
+        super(String.format("Version %s of %s is no longer current", expectedVersion, identifier));
+        this.identifier = identifier;
+        this.expectedVersion = expectedVersion;
+    }
+
+    public Object getIdentifier() {
+        return identifier;
+    }
+
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
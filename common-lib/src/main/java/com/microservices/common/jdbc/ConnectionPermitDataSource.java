@@ -0,0 +1,154 @@
+package com.microservices.common.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * DataSource que limita con un semáforo justo cuántos hilos pueden pedir conexión a la vez.
+ * Con hilos virtuales no hay límite de hilos que frene la demanda: la espera se hace aparcando
+ * en el semáforo (FIFO, sin retener hilos portadores) en lugar de en la cola del pool.
+ * El permiso se libera al cerrar la conexión.
+ */
+public class ConnectionPermitDataSource implements DataSource {
+
+    private final DataSource target;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    public ConnectionPermitDataSource(DataSource target, String pool, int permits, Duration maxWait,
+                                      MeterRegistry meterRegistry) {
+        this.target = target;
+        this.permits = new Semaphore(permits, true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTimer = Timer.builder("jdbc.connections.permits.wait")
+            .description("Espera por un permiso de conexión a la BD")
+            .tag("pool", pool)
+            .register(meterRegistry);
+        this.timeouts = Counter.builder("jdbc.connections.permits.timeouts")
+            .description("Peticiones de conexión sin permiso dentro del tiempo máximo")
+            .tag("pool", pool)
+            .register(meterRegistry);
+        Gauge.builder("jdbc.connections.permits.waiting", this.permits, Semaphore::getQueueLength)
+            .description("Hilos esperando un permiso de conexión")
+            .tag("pool", pool)
+            .register(meterRegistry);
+        Gauge.builder("jdbc.connections.permits.available", this.permits, Semaphore::availablePermits)
+            .description("Permisos de conexión libres")
+            .tag("pool", pool)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return permitted(target.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return permitted(target.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                timeouts.increment();
+                throw new SQLTransientConnectionException(
+                    "Sin permiso de conexión tras " + Duration.ofNanos(maxWaitNanos).toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando un permiso de conexión", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection permitted(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                    if (!released.compareAndSet(false, true)) {
+                        return null;
+                    }
+                    try {
+                        connection.close();
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            });
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+}
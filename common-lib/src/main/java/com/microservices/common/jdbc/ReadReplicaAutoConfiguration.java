@@ -0,0 +1,76 @@
+package com.microservices.common.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de lectura (app.datasource.replica.url): las transacciones readOnly toman conexión de la
+ * réplica mientras su retraso no supere max-lag, y el resto del primario. El proxy perezoso retrasa
+ * la conexión física hasta la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ * Va antes de DataSourceAutoConfiguration, que con este DataSource ya no crea el suyo.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass({HikariDataSource.class, LazyConnectionDataSourceProxy.class, MeterRegistry.class})
+@ConditionalOnProperty("app.datasource.replica.url")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReadReplicaAutoConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaFallbackDataSource readOnlyDataSource(
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Qualifier("primaryDataSource") DataSource primary,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${app.datasource.replica.lag-check-interval:5s}") Duration checkInterval,
+            @Value("${app.datasource.replica.lag-query:" + ReplicaFallbackDataSource.POSTGRES_LAG_QUERY + "}") String lagQuery) {
+        return new ReplicaFallbackDataSource(replica, primary, maxLag, lagQuery, checkInterval, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("readOnlyDataSource") DataSource readOnly) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(readOnly);
+        return dataSource;
+    }
+}
@@ -0,0 +1,162 @@
+package com.microservices.common.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * DataSource de solo lectura: entrega conexiones de la réplica mientras su retraso de replicación
+ * (medido periódicamente con lagQuery, en milisegundos) no supere maxLag, y del primario si no,
+ * si la réplica no responde o hasta la primera medición.
+ */
+@Slf4j
+public class ReplicaFallbackDataSource implements DataSource, AutoCloseable {
+
+    /**
+     * Retraso en PostgreSQL: 0 si no está en recuperación o ya ha aplicado todo lo recibido
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery()"
+        + " OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+        + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final long maxLagMillis;
+    private final String lagQuery;
+    private final ScheduledExecutorService scheduler;
+    private final Counter replicaConnections;
+    private final Counter primaryConnections;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration maxLag, String lagQuery,
+                                     Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.primary = primary;
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+        this.replicaConnections = routed(meterRegistry, "replica");
+        this.primaryConnections = routed(meterRegistry, "primary");
+        Gauge.builder("jdbc.replica.lag", this, dataSource -> dataSource.lagMillis)
+            .description("Retraso de replicación medido (-1 = réplica no disponible)")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("jdbc.replica.usable", this, dataSource -> dataSource.replicaUsable ? 1 : 0)
+            .description("1 si las lecturas de solo lectura van a la réplica")
+            .register(meterRegistry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("replica-lag-check").factory());
+        this.scheduler.scheduleWithFixedDelay(this::checkLag, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaUsable) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                markUnusable("sin conexión: " + e.getMessage());
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Solo se admiten las credenciales de cada pool");
+    }
+
+    void checkLag() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            long lag = rs.next() ? rs.getLong(1) : 0;
+            lagMillis = lag;
+            if (lag > maxLagMillis) {
+                markUnusable("retraso de " + lag + " ms");
+            } else if (!replicaUsable) {
+                replicaUsable = true;
+                log.info("Lecturas de solo lectura hacia la réplica (retraso {} ms)", lag);
+            }
+        } catch (SQLException | RuntimeException e) {
+            lagMillis = -1;
+            markUnusable("comprobación fallida: " + e.getMessage());
+        }
+    }
+
+    private void markUnusable(String reason) {
+        if (replicaUsable) {
+            replicaUsable = false;
+            log.warn("Lecturas de solo lectura hacia el primario, réplica descartada: {}", reason);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("jdbc.replica.routed")
+            .description("Conexiones de solo lectura entregadas por destino")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("No es un wrapper de " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
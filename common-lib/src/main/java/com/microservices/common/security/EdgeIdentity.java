@@ -0,0 +1,10 @@
+package com.microservices.common.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Identidad verificada en el gateway que viaja a los servicios en cabeceras firmadas
+ */
+public record EdgeIdentity(String subject, List<String> roles, Instant expiresAt) {
+}
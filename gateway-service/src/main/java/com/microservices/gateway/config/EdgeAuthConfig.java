@@ -0,0 +1,45 @@
+package com.microservices.gateway.config;
+
+import com.microservices.common.security.EdgeIdentitySigner;
+import com.microservices.gateway.filter.EdgeJwtFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+/**
+ * Verificación de JWT en el borde: decodificador reactivo con el JWKS de auth-service cacheado en
+ * memoria (solo se vuelve a descargar ante un kid desconocido) y firma de las cabeceras de identidad
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(value = "app.edge-auth.enabled", havingValue = "true", matchIfMissing = true)
+public class EdgeAuthConfig {
+
+    @Bean
+    public ReactiveJwtDecoder edgeJwtDecoder(@Value("${app.edge-auth.jwk-set-uri}") String jwkSetUri,
+                                             @Value("${app.edge-auth.issuer-uri}") String issuerUri) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri)
+            .jwsAlgorithm(SignatureAlgorithm.RS256)
+            .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    }
+
+    @Bean
+    public EdgeJwtFilter edgeJwtFilter(ReactiveJwtDecoder edgeJwtDecoder,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.edge-auth.header-secret:}") String headerSecret) {
+        if (headerSecret.isBlank()) {
+            log.info("Sin app.edge-auth.header-secret: el gateway verifica los JWT pero no propaga identidad firmada");
+        }
+        EdgeIdentitySigner signer = headerSecret.isBlank() ? null : new EdgeIdentitySigner(headerSecret);
+        return new EdgeJwtFilter(edgeJwtDecoder, signer, meterRegistry);
+    }
+}
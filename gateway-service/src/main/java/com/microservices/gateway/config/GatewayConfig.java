@@ -1,32 +1,110 @@
 package com.microservices.gateway.config;
 
+import com.microservices.gateway.filter.RateLimitFilter;
+import com.microservices.gateway.filter.RateLimitKey;
+import com.microservices.gateway.filter.RateLimits;
+import com.microservices.gateway.filter.RequestCoalescer;
+import com.microservices.gateway.filter.ResilienceFilter;
+import com.microservices.gateway.filter.ResiliencePolicies;
+import com.microservices.gateway.filter.ResponseCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Configuración de rutas del Gateway
+ * Configuración de rutas del Gateway. Las rutas con caché de respuestas van delante (order -1)
+ * de la ruta general de su servicio y solo cubren recursos leídos a menudo y que cambian poco.
+ * Las rutas de los servicios agrupan los GET idénticos en vuelo para no multiplicar la carga en Postgres.
+ * Las que comprueban contraseñas (BCrypt) tienen rate limit por IP y por username. Todas las rutas de
+ * un backend comparten sus políticas de resiliencia (bulkhead, circuit breaker, tiempo y reintentos).
  */
 @Configuration
 public class GatewayConfig {
 
     @Bean
-    public RouteLocator gatewayRoutes(RouteLocatorBuilder builder) {
+    public RouteLocator gatewayRoutes(RouteLocatorBuilder builder,
+                                      ResponseCache responseCache,
+                                      RequestCoalescer requestCoalescer,
+                                      RateLimits rateLimits,
+                                      ResiliencePolicies resiliencePolicies,
+                                      @Value("${app.gateway.rate-limit.credentials.ip.capacity:20}") long credentialsIpCapacity,
+                                      @Value("${app.gateway.rate-limit.credentials.ip.refill-per-second:5}") double credentialsIpRefill,
+                                      @Value("${app.gateway.rate-limit.credentials.username.capacity:5}") long credentialsUserCapacity,
+                                      @Value("${app.gateway.rate-limit.credentials.username.refill-per-second:0.5}") double credentialsUserRefill,
+                                      @Value("${app.gateway.rate-limit.register.ip.capacity:5}") long registerIpCapacity,
+                                      @Value("${app.gateway.rate-limit.register.ip.refill-per-second:0.1}") double registerIpRefill,
+                                      @Value("${app.gateway.rate-limit.users.principal.capacity:100}") long usersCapacity,
+                                      @Value("${app.gateway.rate-limit.users.principal.refill-per-second:50}") double usersRefill) {
+        // Un mismo filtro en varias rutas comparte sus cubos
+        RateLimitFilter usersByPrincipal = rateLimits.limit("users", RateLimitKey.PRINCIPAL, usersCapacity, usersRefill);
+        ResilienceFilter authService = resiliencePolicies.forBackend("auth-service");
+        ResilienceFilter userService = resiliencePolicies.forBackend("user-service");
+        ResilienceFilter webUi = resiliencePolicies.forBackend("web-ui");
+
         return builder.routes()
+            // Validación de credenciales y emisión de tokens (BCrypt en auth-service)
+            .route("auth-credentials", r -> r
+                .order(-1)
+                .path("/auth/api/v1/auth/validate", "/auth/api/v1/auth/token")
+                .filters(f -> f
+                    .filter(rateLimits.limit("credentials", RateLimitKey.IP, credentialsIpCapacity, credentialsIpRefill))
+                    .filter(rateLimits.limit("credentials", RateLimitKey.USERNAME, credentialsUserCapacity, credentialsUserRefill))
+                    .filter(authService))
+                .uri("http://localhost:8081"))
+
+            // Registro (BCrypt al guardar la contraseña)
+            .route("auth-register", r -> r
+                .order(-1)
+                .path("/auth/api/v1/auth/register")
+                .filters(f -> f
+                    .filter(rateLimits.limit("register", RateLimitKey.IP, registerIpCapacity, registerIpRefill))
+                    .filter(authService))
+                .uri("http://localhost:8081"))
+
+            // Usuario por username (auth-service, no-cache + ETag: se revalida con If-None-Match)
+            .route("auth-user", r -> r
+                .order(-1)
+                .path("/auth/api/v1/auth/users/{username}")
+                .filters(f -> f
+                    .filter(responseCache.forRoute("auth-user"))
+                    .filter(requestCoalescer.forRoute("auth-user"))
+                    .filter(authService))
+                .uri("http://localhost:8081"))
+
+            // Perfil por id (user-service, no-cache + ETag: se revalida con If-None-Match)
+            .route("user-profile", r -> r
+                .order(-1)
+                .path("/users/api/v1/profiles/{userId}")
+                .filters(f -> f
+                    .filter(usersByPrincipal)
+                    .filter(responseCache.forRoute("user-profile"))
+                    .filter(requestCoalescer.forRoute("user-profile"))
+                    .filter(userService))
+                .uri("http://localhost:8082"))
+
             // Auth Service (API endpoints)
             .route("auth-service", r -> r
                 .path("/auth/**")
+                .filters(f -> f
+                    .filter(requestCoalescer.forRoute("auth-service"))
+                    .filter(authService))
                 .uri("http://localhost:8081"))
             
             // User Service
             .route("user-service", r -> r
                 .path("/users/**")
+                .filters(f -> f
+                    .filter(usersByPrincipal)
+                    .filter(requestCoalescer.forRoute("user-service"))
+                    .filter(userService))
                 .uri("http://localhost:8082"))
             
             // Web UI - solo para index y rutas específicas (raíz y recursos estáticos)
             .route("web-ui-root", r -> r
                 .path("/")
+                .filters(f -> f.filter(webUi))
                 .uri("http://localhost:8083"))
             
             .build();
@@ -0,0 +1,32 @@
+package com.microservices.gateway.config;
+
+import com.microservices.gateway.filter.RateLimits;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Rate limit de las rutas: app.gateway.rate-limit.mode=local (una sola réplica, sin saltos de red)
+ * o redis (mismo presupuesto para todas las réplicas del gateway)
+ */
+@Slf4j
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimits rateLimits(ObjectProvider<ReactiveStringRedisTemplate> redisTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.gateway.rate-limit.mode:local}") String mode,
+                                 @Value("${app.gateway.rate-limit.redis-timeout:100ms}") Duration redisTimeout,
+                                 @Value("${app.gateway.rate-limit.max-local-keys:100000}") long maxLocalKeys) {
+        boolean redis = "redis".equalsIgnoreCase(mode);
+        log.info("Rate limit del gateway en modo {}", redis ? "redis" : "local");
+        return new RateLimits(redis ? redisTemplate.getObject() : null, redisTimeout, maxLocalKeys, meterRegistry);
+    }
+}
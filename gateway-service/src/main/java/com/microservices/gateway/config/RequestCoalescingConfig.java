@@ -0,0 +1,24 @@
+package com.microservices.gateway.config;
+
+import com.microservices.gateway.filter.RequestCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Agrupación de GET idénticos en vuelo; cada ruta la activa con requestCoalescer.forRoute en GatewayConfig
+ */
+@Configuration
+public class RequestCoalescingConfig {
+
+    @Bean
+    public RequestCoalescer requestCoalescer(MeterRegistry meterRegistry,
+                                             @Value("${app.gateway.coalescing.max-wait:3s}") Duration maxWait,
+                                             @Value("${app.gateway.coalescing.max-body-size:1MB}") DataSize maxBodySize) {
+        return new RequestCoalescer(maxWait, maxBodySize.toBytes(), meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.microservices.gateway.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.gateway.filter.ResiliencePolicies;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Políticas de resiliencia por backend sobre los registros de Resilience4j de Spring Boot
+ * (configuración en resilience4j.* y métricas resilience4j_* en Prometheus)
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public ResiliencePolicies resiliencePolicies(CircuitBreakerRegistry circuitBreakerRegistry,
+                                                 RetryRegistry retryRegistry,
+                                                 BulkheadRegistry bulkheadRegistry,
+                                                 TimeLimiterRegistry timeLimiterRegistry,
+                                                 ObjectMapper objectMapper,
+                                                 MeterRegistry meterRegistry) {
+        return new ResiliencePolicies(circuitBreakerRegistry, retryRegistry, bulkheadRegistry,
+            timeLimiterRegistry, objectMapper, meterRegistry);
+    }
+}
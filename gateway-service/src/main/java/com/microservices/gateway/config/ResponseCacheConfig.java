@@ -0,0 +1,31 @@
+package com.microservices.gateway.config;
+
+import com.microservices.gateway.filter.ResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Caché de respuestas del gateway; cada ruta la activa con responseCache.forRoute en GatewayConfig
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    @Bean
+    public ResponseCache responseCache(WebClient.Builder webClientBuilder,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.gateway.response-cache.max-size:64MB}") DataSize maxSize,
+                                       @Value("${app.gateway.response-cache.max-entry-size:256KB}") DataSize maxEntrySize,
+                                       @Value("${app.gateway.response-cache.default-ttl:30s}") Duration defaultTtl,
+                                       @Value("${app.gateway.response-cache.stale-while-revalidate:60s}") Duration staleWhileRevalidate,
+                                       @Value("${app.gateway.response-cache.retention:10m}") Duration retention,
+                                       @Value("${app.gateway.response-cache.revalidation-timeout:5s}") Duration revalidationTimeout) {
+        return new ResponseCache(maxSize.toBytes(), maxEntrySize.toBytes(), defaultTtl, staleWhileRevalidate,
+            retention, revalidationTimeout, webClientBuilder.build(), meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.microservices.gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Copia del cuerpo de una respuesta mientras se escribe al cliente, hasta un máximo de bytes. Al
+ * superarlo se descarta la copia y el resto del cuerpo sigue fluyendo sin retenerse en memoria,
+ * tenga o no Content-Length (respuestas chunked).
+ */
+final class BoundedBodyCopy {
+
+    private final long maxBytes;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    BoundedBodyCopy(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * El mismo cuerpo, copiando cada buffer sin consumirlo
+     */
+    Flux<DataBuffer> tee(Publisher<? extends DataBuffer> body) {
+        return Flux.<DataBuffer>from(body).doOnNext(this::append);
+    }
+
+    /**
+     * Cuerpo completo copiado, o null si superó el máximo
+     */
+    byte[] bytes() {
+        return copy == null ? null : copy.toByteArray();
+    }
+
+    private void append(DataBuffer buffer) {
+        if (copy == null) {
+            return;
+        }
+        int length = buffer.readableByteCount();
+        if (copy.size() + (long) length > maxBytes) {
+            copy = null;
+            return;
+        }
+        byte[] bytes = new byte[length];
+        buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, length);
+        copy.writeBytes(bytes);
+    }
+}
@@ -0,0 +1,59 @@
+package com.microservices.gateway.filter;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Locale;
+
+/**
+ * Directivas de Cache-Control que interpreta la caché de respuestas (petición o respuesta).
+ * maxAge prefiere s-maxage; null = sin directiva. Pragma: no-cache cuenta como no-cache.
+ */
+record CacheDirectives(boolean noStore, boolean noCache, boolean mustRevalidate,
+                       Long maxAge, Long staleWhileRevalidate) {
+
+    static CacheDirectives of(HttpHeaders headers) {
+        boolean noStore = false;
+        boolean noCache = headers.getOrEmpty(HttpHeaders.PRAGMA).stream()
+            .anyMatch(value -> value.toLowerCase(Locale.ROOT).contains("no-cache"));
+        boolean mustRevalidate = false;
+        Long maxAge = null;
+        Long sharedMaxAge = null;
+        Long staleWhileRevalidate = null;
+
+        for (String value : headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)) {
+            for (String directive : value.split(",")) {
+                String[] parts = directive.trim().toLowerCase(Locale.ROOT).split("=", 2);
+                String argument = parts.length > 1 ? parts[1].replace("\"", "").trim() : null;
+                switch (parts[0]) {
+                    case "no-store" -> noStore = true;
+                    case "no-cache" -> noCache = true;
+                    case "must-revalidate", "proxy-revalidate" -> mustRevalidate = true;
+                    case "max-age" -> maxAge = seconds(argument);
+                    case "s-maxage" -> sharedMaxAge = seconds(argument);
+                    case "stale-while-revalidate" -> staleWhileRevalidate = seconds(argument);
+                    default -> { }
+                }
+            }
+        }
+        return new CacheDirectives(noStore, noCache, mustRevalidate,
+            sharedMaxAge != null ? sharedMaxAge : maxAge, staleWhileRevalidate);
+    }
+
+    /**
+     * Petición que exige ir al origen (no-cache o max-age=0)
+     */
+    boolean requiresRevalidation() {
+        return noCache || (maxAge != null && maxAge == 0);
+    }
+
+    private static Long seconds(String argument) {
+        if (argument == null) {
+            return null;
+        }
+        try {
+            return Math.max(0, Long.parseLong(argument));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.microservices.gateway.filter;
+
+import com.microservices.common.security.EdgeIdentity;
+import com.microservices.common.security.EdgeIdentitySigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Verifica en el borde los bearer tokens (firma contra el JWKS cacheado, exp, iss) y rechaza con 401
+ * los inválidos sin llegar a enrutar. Los válidos siguen con su identidad (sub, roles) en cabeceras
+ * firmadas; las cabeceras de identidad que traiga el cliente se descartan siempre.
+ * Si el JWKS no está disponible la petición sigue sin cabeceras y la verifica el servicio destino.
+ */
+@Slf4j
+public class EdgeJwtFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Atributo del exchange con el principal verificado ("sub|roles") para los filtros posteriores
+     */
+    public static final String PRINCIPAL_ATTRIBUTE = EdgeJwtFilter.class.getName() + ".principal";
+
+    private static final String BEARER_PREFIX = "bearer ";
+    static final String ANONYMOUS = "anonymous";
+    private static final String UNKNOWN_ROUTE = "unknown";
+
+    private final ReactiveJwtDecoder jwtDecoder;
+    private final EdgeIdentitySigner signer;
+    private final MeterRegistry meterRegistry;
+
+    public EdgeJwtFilter(ReactiveJwtDecoder jwtDecoder, EdgeIdentitySigner signer, MeterRegistry meterRegistry) {
+        this.jwtDecoder = jwtDecoder;
+        this.signer = signer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        // Antes de cualquier filtro de ruta: un token inválido no debe consumir más recursos
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        boolean spoofed = EdgeIdentitySigner.HEADERS.stream().anyMatch(request.getHeaders()::containsKey);
+        String token = bearerToken(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (token == null) {
+            return chain.filter(spoofed ? withIdentity(exchange, null) : exchange);
+        }
+
+        String route = routeId(exchange);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return jwtDecoder.decode(token)
+            // Cualquier error, no solo JwtException: sin JWKS NimbusReactiveJwtDecoder emite IllegalStateException
+            .onErrorResume(e -> {
+                String outcome = outcome(e);
+                sample.stop(verificationTimer(route, outcome));
+                if ("unverified".equals(outcome)) {
+                    log.warn("JWT sin verificar en el gateway (ruta {}), se delega en el servicio: {}", route, e.getMessage());
+                    return chain.filter(withIdentity(exchange, null)).then(Mono.<Jwt>empty());
+                }
+                rejections(route, outcome).increment();
+                log.debug("JWT rechazado en el gateway (ruta {}, {}): {}", route, outcome, e.getMessage());
+                return unauthorized(exchange.getResponse(), e).then(Mono.<Jwt>empty());
+            })
+            .flatMap(jwt -> {
+                sample.stop(verificationTimer(route, "valid"));
+                List<String> roles = jwt.getClaimAsStringList("roles");
+                exchange.getAttributes().put(PRINCIPAL_ATTRIBUTE,
+                    jwt.getSubject() + "|" + (roles == null ? "" : String.join(",", roles)));
+                return chain.filter(withIdentity(exchange, jwt));
+            });
+    }
+
+    /**
+     * Principal para claves de caché y agrupación: el verificado; si no se pudo verificar, el hash del
+     * token (cada token es su propio principal); sin Authorization, anónimo
+     */
+    public static String principalKey(ServerWebExchange exchange) {
+        String principal = exchange.getAttribute(PRINCIPAL_ATTRIBUTE);
+        if (principal != null) {
+            return principal;
+        }
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return authorization == null ? ANONYMOUS : "token:" + sha256(authorization);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Petición sin cabeceras de identidad del cliente y, si hay JWT verificado y secreto, con las firmadas
+     */
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, Jwt jwt) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+            .headers(headers -> {
+                EdgeIdentitySigner.HEADERS.forEach(headers::remove);
+                if (jwt != null && signer != null && jwt.getSubject() != null && jwt.getExpiresAt() != null) {
+                    List<String> roles = jwt.getClaimAsStringList("roles");
+                    EdgeIdentity identity = new EdgeIdentity(jwt.getSubject(),
+                        roles == null ? List.of() : roles, jwt.getExpiresAt());
+                    headers.set(EdgeIdentitySigner.SUBJECT_HEADER, identity.subject());
+                    headers.set(EdgeIdentitySigner.ROLES_HEADER, EdgeIdentitySigner.roles(identity));
+                    headers.set(EdgeIdentitySigner.EXPIRES_HEADER, Long.toString(identity.expiresAt().getEpochSecond()));
+                    headers.set(EdgeIdentitySigner.SIGNATURE_HEADER, signer.sign(identity));
+                }
+            })
+            .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private static Mono<Void> unauthorized(ServerHttpResponse response, Throwable e) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        String description = e instanceof JwtValidationException && isExpired((JwtValidationException) e)
+            ? "The access token expired"
+            : "The access token is invalid";
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE,
+            "Bearer error=\"invalid_token\", error_description=\"" + description + "\"");
+        return response.setComplete();
+    }
+
+    /**
+     * expired / invalid = token rechazado (BadJwtException); unverified = no se pudo comprobar
+     * (JWKS inaccesible u otro fallo que no es del token)
+     */
+    private static String outcome(Throwable e) {
+        if (e instanceof JwtValidationException validation) {
+            return isExpired(validation) ? "expired" : "invalid";
+        }
+        return e instanceof BadJwtException ? "invalid" : "unverified";
+    }
+
+    private static boolean isExpired(JwtValidationException e) {
+        return e.getErrors().stream()
+            .anyMatch(error -> error.getDescription() != null && error.getDescription().contains("expired"));
+    }
+
+    private static String bearerToken(String authorization) {
+        if (authorization == null || authorization.length() <= BEARER_PREFIX.length()
+                || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null ? UNKNOWN_ROUTE : route.getId();
+    }
+
+    private Timer verificationTimer(String route, String outcome) {
+        return Timer.builder("gateway.jwt.verification")
+            .description("Tiempo de verificación de JWT en el gateway")
+            .tag("route", route)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private Counter rejections(String route, String reason) {
+        return Counter.builder("gateway.jwt.rejected")
+            .description("Peticiones rechazadas en el gateway por JWT inválido o expirado")
+            .tag("route", route)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.microservices.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets en memoria de esta réplica, sin locks: el estado de cada clave es inmutable y se
+ * sustituye con CAS. Una clave inactiva durante la ventana ya tendría el cubo lleno, así que
+ * descartarla no cambia ninguna decisión.
+ */
+class LocalTokenBuckets implements TokenBuckets {
+
+    private final RateLimitPolicy policy;
+    private final double tokensPerNano;
+    private final Cache<String, AtomicReference<State>> buckets;
+
+    LocalTokenBuckets(RateLimitPolicy policy, long maxKeys) {
+        this.policy = policy;
+        this.tokensPerNano = policy.refillPerSecond() / Duration.ofSeconds(1).toNanos();
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxKeys)
+            .expireAfterAccess(Duration.ofSeconds(policy.windowSeconds()))
+            .build();
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key) {
+        return Mono.just(consume(key, System.nanoTime()));
+    }
+
+    RateLimitDecision consume(String key, long now) {
+        AtomicReference<State> bucket = buckets.get(key, k -> new AtomicReference<>(new State(policy.capacity(), now)));
+        while (true) {
+            State current = bucket.get();
+            long at = Math.max(now, current.updatedAt());
+            double tokens = Math.min(policy.capacity(), current.tokens() + (at - current.updatedAt()) * tokensPerNano);
+            boolean allowed = tokens >= 1;
+            State next = new State(allowed ? tokens - 1 : tokens, at);
+            if (bucket.compareAndSet(current, next)) {
+                return policy.decision(allowed, next.tokens());
+            }
+        }
+    }
+
+    private record State(double tokens, long updatedAt) {
+    }
+}
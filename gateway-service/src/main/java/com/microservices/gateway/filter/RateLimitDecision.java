@@ -0,0 +1,8 @@
+package com.microservices.gateway.filter;
+
+/**
+ * Resultado de consumir un token, con los valores de las cabeceras RateLimit-*
+ */
+record RateLimitDecision(boolean allowed, long limit, long remaining, long resetSeconds,
+                         long retryAfterSeconds, String policy) {
+}
@@ -0,0 +1,169 @@
+package com.microservices.gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Rate limit de token bucket por ruta. Añade RateLimit-Limit/Remaining/Reset/Policy (si hay varios
+ * límites en la ruta quedan los del más restrictivo) y responde 429 con Retry-After al agotarse.
+ */
+public class RateLimitFilter implements GatewayFilter, Ordered {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+    static final String POLICY_HEADER = "RateLimit-Policy";
+
+    /**
+     * Cuerpo máximo que se lee para extraer el username; los mayores (o sin Content-Length, o no JSON)
+     * se rechazan: limitarlos por IP dejaría esquivar el límite por username rellenando el cuerpo
+     */
+    private static final int MAX_USERNAME_BODY_BYTES = 4096;
+    private static final String UNKNOWN_ADDRESS = "unknown";
+
+    private final String name;
+    private final RateLimitKey key;
+    private final TokenBuckets buckets;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter allowed;
+    private final Counter rejected;
+    private final Counter unreadable;
+
+    RateLimitFilter(String name, RateLimitKey key, TokenBuckets buckets, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.key = key;
+        this.buckets = buckets;
+        this.allowed = requests(meterRegistry, "allowed");
+        this.rejected = requests(meterRegistry, "rejected");
+        this.unreadable = requests(meterRegistry, "unreadable");
+    }
+
+    @Override
+    public int getOrder() {
+        // Después de EdgeJwtFilter (para conocer el principal) y antes de caché, agrupación y enrutado
+        return Ordered.HIGHEST_PRECEDENCE + 200;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (key == RateLimitKey.USERNAME) {
+            HttpStatus invalid = unreadableCredentials(exchange.getRequest().getHeaders());
+            if (invalid != null) {
+                unreadable.increment();
+                exchange.getResponse().setStatusCode(invalid);
+                return exchange.getResponse().setComplete();
+            }
+            return withUsername(exchange).flatMap(keyed -> limit(keyed.exchange(), chain, keyed.bucket()));
+        }
+        String bucket = key == RateLimitKey.PRINCIPAL ? principal(exchange) : "ip:" + clientAddress(exchange);
+        return limit(exchange, chain, bucket);
+    }
+
+    private Mono<Void> limit(ServerWebExchange exchange, GatewayFilterChain chain, String bucket) {
+        return buckets.tryConsume(bucket).flatMap(decision -> {
+            ServerHttpResponse response = exchange.getResponse();
+            writeHeaders(response.getHeaders(), decision);
+            if (decision.allowed()) {
+                allowed.increment();
+                return chain.filter(exchange);
+            }
+            rejected.increment();
+            response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            return response.setComplete();
+        });
+    }
+
+    private static void writeHeaders(HttpHeaders headers, RateLimitDecision decision) {
+        String previous = headers.getFirst(REMAINING_HEADER);
+        if (previous != null && Long.parseLong(previous) <= decision.remaining()) {
+            return;
+        }
+        headers.set(LIMIT_HEADER, Long.toString(decision.limit()));
+        headers.set(REMAINING_HEADER, Long.toString(decision.remaining()));
+        headers.set(RESET_HEADER, Long.toString(decision.resetSeconds()));
+        headers.set(POLICY_HEADER, decision.policy());
+    }
+
+    private static String principal(ServerWebExchange exchange) {
+        String principal = EdgeJwtFilter.principalKey(exchange);
+        return EdgeJwtFilter.ANONYMOUS.equals(principal) ? "ip:" + clientAddress(exchange) : principal;
+    }
+
+    /**
+     * Estado con el que se rechaza un cuerpo de credenciales del que no se puede leer el username
+     * de forma acotada; null si se puede
+     */
+    private static HttpStatus unreadableCredentials(HttpHeaders headers) {
+        long length = headers.getContentLength();
+        if (!MediaType.APPLICATION_JSON.isCompatibleWith(headers.getContentType())) {
+            return HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+        }
+        if (length < 0) {
+            return HttpStatus.LENGTH_REQUIRED;
+        }
+        return length > MAX_USERNAME_BODY_BYTES ? HttpStatus.PAYLOAD_TOO_LARGE : null;
+    }
+
+    /**
+     * Lee (y conserva para el enrutado) el cuerpo JSON pequeño para tomar su campo username;
+     * sin username legible (nadie a quien atacar) se limita por IP
+     */
+    private Mono<Keyed> withUsername(ServerWebExchange exchange) {
+        return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, request -> {
+            DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+            String username = body == null ? null : username(body);
+            ServerWebExchange cached = exchange.mutate().request(request).build();
+            return Mono.just(new Keyed(cached, username == null
+                ? "ip:" + clientAddress(exchange)
+                : "user:" + username));
+        });
+    }
+
+    private String username(DataBuffer body) {
+        try {
+            // toString no mueve la posición de lectura: el cuerpo se sigue reenviando completo
+            JsonNode username = objectMapper.readTree(body.toString(StandardCharsets.UTF_8)).path("username");
+            return username.isTextual() && !username.asText().isBlank()
+                ? username.asText().trim().toLowerCase(Locale.ROOT)
+                : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String clientAddress(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote == null || remote.getAddress() == null ? UNKNOWN_ADDRESS : remote.getAddress().getHostAddress();
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("gateway.ratelimit.requests")
+            .description("Peticiones evaluadas por el rate limit por resultado")
+            .tag("limiter", name)
+            .tag("key", key.name().toLowerCase(Locale.ROOT))
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private record Keyed(ServerWebExchange exchange, String bucket) {
+    }
+}
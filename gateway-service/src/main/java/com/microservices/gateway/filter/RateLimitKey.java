@@ -0,0 +1,23 @@
+package com.microservices.gateway.filter;
+
+/**
+ * Por qué se agrupan las peticiones en cubos de rate limit
+ */
+public enum RateLimitKey {
+
+    /**
+     * Dirección IP del cliente (la conexión que llega al gateway, no X-Forwarded-For)
+     */
+    IP,
+
+    /**
+     * Campo username del cuerpo JSON (login, validación); sin él, la IP. Los cuerpos no JSON, sin
+     * Content-Length o de más de 4 KB se rechazan (415, 411, 413)
+     */
+    USERNAME,
+
+    /**
+     * Principal verificado por EdgeJwtFilter; sin token, la IP
+     */
+    PRINCIPAL
+}
@@ -0,0 +1,34 @@
+package com.microservices.gateway.filter;
+
+/**
+ * Política de un token bucket: ráfaga máxima (capacity) y tokens repuestos por segundo
+ */
+record RateLimitPolicy(long capacity, double refillPerSecond) {
+
+    RateLimitPolicy {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Política de rate limit inválida: " + capacity + "/" + refillPerSecond);
+        }
+    }
+
+    /**
+     * Segundos en que un cubo vacío vuelve a llenarse
+     */
+    long windowSeconds() {
+        return (long) Math.ceil(capacity / refillPerSecond);
+    }
+
+    RateLimitDecision decision(boolean allowed, double tokens) {
+        long resetSeconds = (long) Math.ceil((capacity - tokens) / refillPerSecond);
+        long retryAfterSeconds = allowed ? 0 : Math.max(1, (long) Math.ceil((1 - tokens) / refillPerSecond));
+        return new RateLimitDecision(allowed, capacity, (long) Math.floor(tokens), resetSeconds,
+            retryAfterSeconds, capacity + ";w=" + windowSeconds());
+    }
+
+    /**
+     * Sin estado disponible (p. ej. Redis caído): se deja pasar sin consumir
+     */
+    RateLimitDecision unlimited() {
+        return new RateLimitDecision(true, capacity, capacity, 0, 0, capacity + ";w=" + windowSeconds());
+    }
+}
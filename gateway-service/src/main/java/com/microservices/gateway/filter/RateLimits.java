@@ -0,0 +1,53 @@
+package com.microservices.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Crea los filtros de rate limit de las rutas con el modo configurado: local (cubos en memoria de
+ * cada réplica) o redis (presupuesto compartido entre réplicas)
+ */
+public class RateLimits {
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Duration redisTimeout;
+    private final long maxLocalKeys;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param redisTemplate null para el modo local
+     */
+    public RateLimits(ReactiveStringRedisTemplate redisTemplate, Duration redisTimeout, long maxLocalKeys,
+                      MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisTimeout = redisTimeout;
+        this.maxLocalKeys = maxLocalKeys;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Filtro con sus propios cubos; se puede añadir a varias rutas para que compartan presupuesto
+     *
+     * @param name nombre del límite (etiqueta de métricas y prefijo en Redis)
+     */
+    public RateLimitFilter limit(String name, RateLimitKey key, long capacity, double refillPerSecond) {
+        RateLimitPolicy policy = new RateLimitPolicy(capacity, refillPerSecond);
+        String limiter = name + ":" + key.name().toLowerCase(Locale.ROOT);
+        TokenBuckets buckets = redisTemplate == null
+            ? new LocalTokenBuckets(policy, maxLocalKeys)
+            : new RedisTokenBuckets(redisTemplate, policy, limiter, redisTimeout, errorCounter(name, key)::increment);
+        return new RateLimitFilter(name, key, buckets, meterRegistry);
+    }
+
+    private Counter errorCounter(String name, RateLimitKey key) {
+        return Counter.builder("gateway.ratelimit.errors")
+            .description("Decisiones de rate limit sin Redis disponible (peticiones dejadas pasar)")
+            .tag("limiter", name)
+            .tag("key", key.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,78 @@
+package com.microservices.gateway.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Token buckets en Redis compartidos por todas las réplicas del gateway: un script Lua atómico por
+ * petición, con el reloj de Redis para no depender del de cada réplica. Si Redis no responde a
+ * tiempo la petición pasa (fail open) y se marca la decisión como no disponible.
+ */
+@Slf4j
+class RedisTokenBuckets implements TokenBuckets {
+
+    private static final String PREFIX = "rate-limit:";
+
+    /**
+     * KEYS[1] = hash tokens/ts (ms del reloj de Redis). ARGV = capacidad, tokens por segundo, TTL (ms).
+     * Devuelve {1 si se consumió un token, tokens restantes como texto}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CONSUME = new DefaultRedisScript<>("""
+        local capacity = tonumber(ARGV[1])
+        local rate = tonumber(ARGV[2])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+        local tokens = tonumber(state[1]) or capacity
+        local ts = tonumber(state[2]) or now
+        tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+        local allowed = 0
+        if tokens >= 1 then
+          tokens = tokens - 1
+          allowed = 1
+        end
+        redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+        redis.call('PEXPIRE', KEYS[1], ARGV[3])
+        return {allowed, tostring(tokens)}
+        """, List.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RateLimitPolicy policy;
+    private final String name;
+    private final Duration timeout;
+    private final Runnable onError;
+
+    RedisTokenBuckets(ReactiveStringRedisTemplate redisTemplate, RateLimitPolicy policy, String name,
+                      Duration timeout, Runnable onError) {
+        this.redisTemplate = redisTemplate;
+        this.policy = policy;
+        this.name = name;
+        this.timeout = timeout;
+        this.onError = onError;
+    }
+
+    @Override
+    public Mono<RateLimitDecision> tryConsume(String key) {
+        long ttlMillis = Duration.ofSeconds(policy.windowSeconds()).toMillis() * 2;
+        return redisTemplate.execute(CONSUME, List.of(PREFIX + name + ":" + key),
+                List.of(Long.toString(policy.capacity()), Double.toString(policy.refillPerSecond()),
+                    Long.toString(ttlMillis)))
+            .next()
+            .map(result -> policy.decision(
+                Long.parseLong(String.valueOf(result.get(0))) == 1,
+                Double.parseDouble(String.valueOf(result.get(1)))))
+            .timeout(timeout)
+            .onErrorResume(e -> {
+                onError.run();
+                log.debug("Rate limit {} sin Redis, se deja pasar: {}", name, e.toString());
+                return Mono.just(policy.unlimited());
+            });
+    }
+}
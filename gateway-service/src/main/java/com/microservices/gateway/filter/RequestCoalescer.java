@@ -0,0 +1,87 @@
+package com.microservices.gateway.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de peticiones GET en vuelo compartido por las rutas que activan la agrupación
+ * (RequestCoalescingFilter): la primera petición de una clave es la líder y va al origen; las idénticas
+ * que llegan mientras tanto esperan su respuesta (como mucho maxWait) en lugar de repetir la llamada.
+ */
+public class RequestCoalescer {
+
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Duration maxWait;
+    private final long maxBodyBytes;
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(Duration maxWait, long maxBodyBytes, MeterRegistry meterRegistry) {
+        this.maxWait = maxWait;
+        this.maxBodyBytes = maxBodyBytes;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.in.flight", inFlight, Map::size)
+            .description("Peticiones líderes en vuelo con posibles seguidoras esperando")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Filtro de agrupación para una ruta; la ruta debe declararlo explícitamente en GatewayConfig
+     */
+    public RequestCoalescingFilter forRoute(String routeId) {
+        return new RequestCoalescingFilter(routeId, this, meterRegistry);
+    }
+
+    Duration maxWait() {
+        return maxWait;
+    }
+
+    long maxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /**
+     * Vuelo en curso para la clave (la petición es seguidora) o null si la petición pasa a ser la líder
+     */
+    Flight join(Key key, Flight candidate) {
+        return inFlight.putIfAbsent(key, candidate);
+    }
+
+    /**
+     * Cierra el vuelo: las seguidoras reciben la respuesta o, con null, hacen su propia llamada.
+     * Se retira antes de emitir para que las peticiones posteriores no reciban una respuesta ya servida.
+     */
+    void land(Key key, Flight flight, SharedResponse response) {
+        inFlight.remove(key, flight);
+        if (response == null) {
+            flight.sink.tryEmitEmpty();
+        } else {
+            flight.sink.tryEmitValue(response);
+        }
+    }
+
+    /**
+     * Clave: ruta, path y query, principal, Accept e If-None-Match (un 304 solo vale para quien validó)
+     */
+    record Key(String route, String path, String query, String principal, String accept, String ifNoneMatch) {
+    }
+
+    record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    static final class Flight {
+
+        private final Sinks.One<SharedResponse> sink = Sinks.one();
+
+        Mono<SharedResponse> response() {
+            return sink.asMono();
+        }
+    }
+}
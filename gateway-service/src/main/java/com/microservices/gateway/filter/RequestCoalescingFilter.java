@@ -0,0 +1,189 @@
+package com.microservices.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Agrupa GET idénticos concurrentes (misma ruta, path, principal y validadores) en una sola llamada
+ * al origen y reparte la respuesta a todas las peticiones en espera. Una seguidora que supera maxWait,
+ * o cuya líder no produce una respuesta compartible (error, streaming, cuerpo grande), hace su llamada.
+ */
+public class RequestCoalescingFilter implements GatewayFilter, Ordered {
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(
+        MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
+    private final String routeId;
+    private final RequestCoalescer coalescer;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> results = new ConcurrentHashMap<>();
+    private final Timer followerWait;
+
+    RequestCoalescingFilter(String routeId, RequestCoalescer coalescer, MeterRegistry meterRegistry) {
+        this.routeId = routeId;
+        this.coalescer = coalescer;
+        this.meterRegistry = meterRegistry;
+        this.followerWait = Timer.builder("gateway.coalescing.wait")
+            .description("Espera de las peticiones seguidoras hasta recibir la respuesta compartida")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.ratio", this, RequestCoalescingFilter::coalescingRatio)
+            .description("Proporción de GET agrupables servidos con la respuesta de otra petición")
+            .tag("route", routeId)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // Antes de NettyWriteResponseFilter (para decorar la respuesta que escribe) y después de la caché
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+        if (request.getHeaders().containsKey(HttpHeaders.RANGE) || acceptsStreaming(request.getHeaders())) {
+            result("bypass").increment();
+            return chain.filter(exchange);
+        }
+
+        RequestCoalescer.Key key = key(exchange);
+        RequestCoalescer.Flight flight = new RequestCoalescer.Flight();
+        RequestCoalescer.Flight current = coalescer.join(key, flight);
+        if (current != null) {
+            return follow(exchange, chain, current);
+        }
+
+        result("leader").increment();
+        return chain.filter(exchange.mutate()
+                .response(new SharingResponse(exchange.getResponse(), key, flight))
+                .build())
+            .doFinally(signal -> coalescer.land(key, flight, null));
+    }
+
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, RequestCoalescer.Flight flight) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return flight.response()
+            .timeout(coalescer.maxWait())
+            .onErrorResume(TimeoutException.class, e -> {
+                result("timeout").increment();
+                return Mono.empty();
+            })
+            .flatMap(shared -> {
+                sample.stop(followerWait);
+                result("coalesced").increment();
+                return write(exchange.getResponse(), shared).thenReturn(true);
+            })
+            .switchIfEmpty(Mono.defer(() -> {
+                // Sin respuesta compartible: llamada propia, sin volver a esperar a nadie
+                result("fallback").increment();
+                return chain.filter(exchange).thenReturn(true);
+            }))
+            .then();
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, RequestCoalescer.SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private RequestCoalescer.Key key(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpHeaders headers = request.getHeaders();
+        return new RequestCoalescer.Key(routeId, request.getPath().value(), request.getURI().getRawQuery(),
+            EdgeJwtFilter.principalKey(exchange), headers.getFirst(HttpHeaders.ACCEPT),
+            headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    private static boolean acceptsStreaming(HttpHeaders headers) {
+        try {
+            return headers.getAccept().stream()
+                .anyMatch(accepted -> STREAMING_TYPES.stream().anyMatch(accepted::equalsTypeAndSubtype));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private Counter result(String result) {
+        return results.computeIfAbsent(result, name -> Counter.builder("gateway.coalescing.requests")
+            .description("GET de rutas con agrupación por resultado (leader, coalesced, timeout, fallback, bypass)")
+            .tag("route", routeId)
+            .tag("result", name)
+            .register(meterRegistry));
+    }
+
+    private double coalescingRatio() {
+        double coalesced = result("coalesced").count();
+        double total = coalesced + result("leader").count() + result("timeout").count();
+        return total == 0 ? 0 : coalesced / total;
+    }
+
+    /**
+     * Respuesta de la líder: la escribe según llega y, si cabe en maxBodyBytes, la comparte al terminar
+     */
+    private final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final RequestCoalescer.Key key;
+        private final RequestCoalescer.Flight flight;
+
+        private SharingResponse(ServerHttpResponse delegate, RequestCoalescer.Key key, RequestCoalescer.Flight flight) {
+            super(delegate);
+            this.key = key;
+            this.flight = flight;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() == null || exceedsLimit(getHeaders())) {
+                coalescer.land(key, flight, null);
+                return super.writeWith(body);
+            }
+            BoundedBodyCopy copy = new BoundedBodyCopy(coalescer.maxBodyBytes());
+            return super.writeWith(copy.tee(body).doOnComplete(() -> {
+                byte[] bytes = copy.bytes();
+                coalescer.land(key, flight, bytes == null ? null
+                    : new RequestCoalescer.SharedResponse(getStatusCode(), sharedHeaders(), bytes));
+            }));
+        }
+
+        private boolean exceedsLimit(HttpHeaders headers) {
+            long length = headers.getContentLength();
+            return length > coalescer.maxBodyBytes();
+        }
+
+        private HttpHeaders sharedHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.remove(HttpHeaders.SET_COOKIE);
+            return HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+    }
+}
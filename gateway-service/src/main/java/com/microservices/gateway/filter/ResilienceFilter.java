@@ -0,0 +1,211 @@
+package com.microservices.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.common.dto.ApiResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Políticas de resiliencia de un backend (Resilience4j, instancias con su nombre): bulkhead de
+ * concurrencia sin espera, circuit breaker, límite de tiempo por intento y reintentos solo para
+ * métodos seguros (GET, HEAD, OPTIONS) ante errores de conexión o 502/503/504. Sin permiso o con
+ * el backend fallando se responde enseguida con 503 (504 si se agotó el tiempo).
+ */
+@Slf4j
+public class ResilienceFilter implements GatewayFilter, Ordered {
+
+    private static final Set<HttpMethod> RETRYABLE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(502, 503, 504);
+
+    private final String name;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final TimeLimiter timeLimiter;
+    private final Retry retry;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> fallbacks = new ConcurrentHashMap<>();
+
+    ResilienceFilter(String name, Bulkhead bulkhead, CircuitBreaker circuitBreaker, TimeLimiter timeLimiter,
+                     Retry retry, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.timeLimiter = timeLimiter;
+        this.retry = retry;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        // Justo después de NettyWriteResponseFilter: envuelve solo la llamada al backend (hasta recibir
+        // la cabecera de la respuesta), por detrás de rate limit, caché y agrupación
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!bulkhead.tryAcquirePermission()) {
+            return fallback(exchange, "bulkhead_full", HttpStatus.SERVICE_UNAVAILABLE, null);
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            return fallback(exchange, "circuit_open", HttpStatus.SERVICE_UNAVAILABLE,
+                circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1));
+        }
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        AtomicBoolean recorded = new AtomicBoolean();
+        Retry.AsyncContext<Void> retryContext = RETRYABLE_METHODS.contains(exchange.getRequest().getMethod())
+            ? retry.asyncContext()
+            : null;
+
+        return attempt(exchange, chain, retryContext)
+            .then(Mono.<Void>fromRunnable(() -> {
+                recorded.set(true);
+                long elapsed = circuitBreaker.getCurrentTimestamp() - start;
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is5xxServerError()) {
+                    circuitBreaker.onError(elapsed, circuitBreaker.getTimestampUnit(), new UpstreamStatusException(status));
+                } else {
+                    circuitBreaker.onSuccess(elapsed, circuitBreaker.getTimestampUnit());
+                }
+            }))
+            .onErrorResume(e -> {
+                if (recorded.compareAndSet(false, true)) {
+                    circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+                }
+                boolean timeout = e instanceof TimeoutException;
+                log.debug("Backend {} sin respuesta válida ({}), se responde el fallback", name, e.toString());
+                return fallback(exchange, timeout ? "timeout" : "error",
+                    timeout ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE, null);
+            })
+            .doOnCancel(() -> {
+                if (recorded.compareAndSet(false, true)) {
+                    circuitBreaker.releasePermission();
+                }
+            })
+            .doFinally(signal -> bulkhead.onComplete());
+    }
+
+    /**
+     * Un intento con su límite de tiempo; los fallos reintentables vuelven a enrutar tras la espera
+     * que indique el Retry, sin bloquear el event loop
+     */
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Retry.AsyncContext<Void> retryContext) {
+        return chain.filter(exchange)
+            .timeout(timeLimiter.getTimeLimiterConfig().getTimeoutDuration())
+            .doOnSuccess(ignored -> timeLimiter.onSuccess())
+            .doOnError(timeLimiter::onError)
+            .then(Mono.fromSupplier(() -> retryableStatus(exchange)))
+            .onErrorResume(Mono::just)
+            .switchIfEmpty(Mono.<Throwable>fromRunnable(() -> {
+                if (retryContext != null) {
+                    retryContext.onComplete();
+                }
+            }))
+            .flatMap(failure -> {
+                long delay = retryContext == null || exchange.getResponse().isCommitted() ? -1 : retryContext.onError(failure);
+                if (delay < 0) {
+                    // Sin más reintentos: un estado del backend se devuelve tal cual, una excepción va al fallback
+                    return failure instanceof UpstreamStatusException ? Mono.empty() : Mono.error(failure);
+                }
+                discardAttempt(exchange);
+                return Mono.delay(Duration.ofMillis(delay)).then(attempt(exchange, chain, retryContext));
+            });
+    }
+
+    private static Throwable retryableStatus(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && RETRYABLE_STATUSES.contains(status.value()) ? new UpstreamStatusException(status) : null;
+    }
+
+    /**
+     * Descarta la respuesta de un intento (conexión y cabeceras copiadas) para poder volver a enrutar
+     */
+    private static void discardAttempt(ServerWebExchange exchange) {
+        Connection connection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+            exchange.getAttributes().remove(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        }
+        ServerWebExchangeUtils.reset(exchange);
+    }
+
+    private Mono<Void> fallback(ServerWebExchange exchange, String reason, HttpStatus status, Long retryAfterMillis) {
+        fallbackCounter(reason).increment();
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.empty();
+        }
+        discardAttempt(exchange);
+
+        ApiResponse<Void> body = ApiResponse.<Void>builder()
+            .code(status.name())
+            .message("Service " + name + " is temporarily unavailable")
+            .status(status.value())
+            .timestamp(LocalDateTime.now())
+            .build();
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            bytes = new byte[0];
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        if (retryAfterMillis != null) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, Duration.ofMillis(retryAfterMillis).toSeconds())));
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    private Counter fallbackCounter(String reason) {
+        return fallbacks.computeIfAbsent(reason, key -> Counter.builder("gateway.resilience.fallbacks")
+            .description("Respuestas de fallback por backend y motivo")
+            .tag("backend", name)
+            .tag("reason", key)
+            .register(meterRegistry));
+    }
+
+    /**
+     * Estado 5xx del backend tratado como fallo por el Retry y el circuit breaker
+     */
+    static final class UpstreamStatusException extends RuntimeException {
+
+        UpstreamStatusException(HttpStatusCode status) {
+            super("Backend respondió " + status.value(), null, false, false);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.microservices.gateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Crea el filtro de resiliencia de cada backend con las instancias de Resilience4j de su nombre
+ * (resilience4j.*.instances.&lt;backend&gt;, o configs.default si no hay)
+ */
+public class ResiliencePolicies {
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final RetryRegistry retries;
+    private final BulkheadRegistry bulkheads;
+    private final TimeLimiterRegistry timeLimiters;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public ResiliencePolicies(CircuitBreakerRegistry circuitBreakers, RetryRegistry retries, BulkheadRegistry bulkheads,
+                              TimeLimiterRegistry timeLimiters, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.circuitBreakers = circuitBreakers;
+        this.retries = retries;
+        this.bulkheads = bulkheads;
+        this.timeLimiters = timeLimiters;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Filtro para todas las rutas de un backend: comparten circuito, bulkhead y presupuesto
+     */
+    public ResilienceFilter forBackend(String backend) {
+        Bulkhead bulkhead = bulkheads.bulkhead(backend);
+        if (!bulkhead.getBulkheadConfig().getMaxWaitDuration().isZero()) {
+            throw new IllegalStateException("resilience4j.bulkhead max-wait-duration de " + backend
+                + " debe ser 0: esperar un permiso bloquearía el event loop del gateway");
+        }
+        return new ResilienceFilter(backend, bulkhead, circuitBreakers.circuitBreaker(backend),
+            timeLimiters.timeLimiter(backend), retries.retry(backend), objectMapper, meterRegistry);
+    }
+}
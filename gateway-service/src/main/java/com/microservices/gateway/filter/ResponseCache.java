@@ -0,0 +1,242 @@
+package com.microservices.gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Almacén de respuestas GET compartido por las rutas que activan la caché (ResponseCacheFilter).
+ * Acotado en bytes (cuerpo y cabeceras guardadas); la frescura sale del Cache-Control de la respuesta
+ * o de los valores por defecto. Una respuesta no-cache solo se guarda si trae ETag, para revalidarla.
+ */
+@Slf4j
+public class ResponseCache {
+
+    private static final List<String> STORED_HEADERS = List.of(
+        HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.CONTENT_LANGUAGE,
+        HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.CACHE_CONTROL, HttpHeaders.VARY);
+
+    /**
+     * Cabeceras de la petición original que no se reenvían en la revalidación en segundo plano
+     */
+    private static final List<String> UNFORWARDED_HEADERS = List.of(
+        HttpHeaders.HOST, HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING,
+        HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.CACHE_CONTROL,
+        HttpHeaders.PRAGMA, HttpHeaders.RANGE);
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final Cache<Key, Entry> entries;
+    private final long maxEntryBytes;
+    private final long defaultTtlNanos;
+    private final long staleWhileRevalidateNanos;
+    private final Duration revalidationTimeout;
+    private final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final Set<Key> revalidating = ConcurrentHashMap.newKeySet();
+
+    public ResponseCache(long maxBytes, long maxEntryBytes, Duration defaultTtl, Duration staleWhileRevalidate,
+                         Duration retention, Duration revalidationTimeout, WebClient webClient,
+                         MeterRegistry meterRegistry) {
+        this.entries = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Key key, Entry entry) -> key.weight() + entry.weight())
+            .expireAfterWrite(retention)
+            .build();
+        this.maxEntryBytes = maxEntryBytes;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+        this.staleWhileRevalidateNanos = staleWhileRevalidate.toNanos();
+        this.revalidationTimeout = revalidationTimeout;
+        this.webClient = webClient;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("gateway.cache.size", entries,
+                cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+            .description("Bytes ocupados por la caché de respuestas del gateway")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("gateway.cache.entries", entries, Cache::estimatedSize)
+            .description("Respuestas guardadas en la caché del gateway")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Filtro de caché para una ruta; la ruta debe declararlo explícitamente en GatewayConfig
+     */
+    public ResponseCacheFilter forRoute(String routeId) {
+        return new ResponseCacheFilter(routeId, this, meterRegistry);
+    }
+
+    Entry get(Key key) {
+        return entries.getIfPresent(key);
+    }
+
+    long maxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * Guarda una respuesta 200 si su tamaño y su Cache-Control lo permiten; null si no se guardó.
+     * Un body null (superó maxEntryBytes al copiarlo) descarta la copia anterior sin guardar nada.
+     */
+    Entry store(Key key, HttpHeaders responseHeaders, byte[] body) {
+        Entry entry = body != null && storable(responseHeaders) && body.length <= maxEntryBytes
+            ? entry(responseHeaders, body)
+            : null;
+        if (entry == null) {
+            entries.invalidate(key);
+        } else {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Respuesta 304 del origen: mismo cuerpo, cabeceras y frescura actualizadas
+     */
+    Entry refresh(Key key, Entry previous, HttpHeaders notModifiedHeaders) {
+        HttpHeaders merged = new HttpHeaders();
+        merged.putAll(previous.headers());
+        for (String name : STORED_HEADERS) {
+            List<String> values = notModifiedHeaders.get(name);
+            if (values != null && !values.isEmpty() && !HttpHeaders.CONTENT_TYPE.equals(name)) {
+                merged.put(name, values);
+            }
+        }
+        return store(key, merged, previous.body());
+    }
+
+    /**
+     * Una escritura sobre el recurso invalida las copias de todos los principales y consultas
+     */
+    void evictPath(String routeId, String path) {
+        entries.asMap().keySet().removeIf(key -> key.route().equals(routeId) && key.path().equals(path));
+    }
+
+    /**
+     * Revalida una entrada servida obsoleta sin bloquear al cliente; una sola a la vez por clave
+     */
+    void revalidateInBackground(Key key, Entry entry, URI uri, HttpHeaders requestHeaders, Consumer<String> outcome) {
+        if (uri == null || !revalidating.add(key)) {
+            return;
+        }
+        webClient.get()
+            .uri(uri)
+            .headers(headers -> {
+                headers.addAll(requestHeaders);
+                UNFORWARDED_HEADERS.forEach(headers::remove);
+                if (entry.etag() != null) {
+                    headers.setIfNoneMatch(entry.etag());
+                }
+            })
+            .exchangeToMono(response -> {
+                if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                    refresh(key, entry, response.headers().asHttpHeaders());
+                    return response.releaseBody().thenReturn("not_modified");
+                }
+                if (response.statusCode().isSameCodeAs(HttpStatus.OK)) {
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    return response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(body -> store(key, headers, body) != null ? "updated" : "evicted");
+                }
+                entries.invalidate(key);
+                return response.releaseBody().thenReturn("evicted");
+            })
+            .timeout(revalidationTimeout)
+            .doFinally(signal -> revalidating.remove(key))
+            .subscribe(outcome, error -> {
+                outcome.accept("failed");
+                log.debug("Revalidación fallida de {}: {}", key.path(), error.toString());
+            });
+    }
+
+    private boolean storable(HttpHeaders headers) {
+        return !headers.containsKey(HttpHeaders.SET_COOKIE)
+            && !headers.getOrEmpty(HttpHeaders.VARY).contains("*");
+    }
+
+    private Entry entry(HttpHeaders responseHeaders, byte[] body) {
+        CacheDirectives directives = CacheDirectives.of(responseHeaders);
+        String etag = responseHeaders.getETag();
+        if (directives.noStore()) {
+            return null;
+        }
+        long freshNanos = directives.noCache() ? 0
+            : directives.maxAge() != null ? Duration.ofSeconds(directives.maxAge()).toNanos()
+            : defaultTtlNanos;
+        if (freshNanos == 0 && etag == null) {
+            // Sin frescura ni validador la copia nunca se podría servir
+            return null;
+        }
+        long staleNanos = directives.noCache() || directives.mustRevalidate() ? 0
+            : directives.staleWhileRevalidate() != null ? Duration.ofSeconds(directives.staleWhileRevalidate()).toNanos()
+            : staleWhileRevalidateNanos;
+
+        HttpHeaders stored = new HttpHeaders();
+        for (String name : STORED_HEADERS) {
+            List<String> values = responseHeaders.get(name);
+            if (values != null && !values.isEmpty()) {
+                stored.put(name, List.copyOf(values));
+            }
+        }
+        return new Entry(HttpHeaders.readOnlyHttpHeaders(stored), body, System.nanoTime(), freshNanos, staleNanos);
+    }
+
+    /**
+     * Clave: ruta del gateway, path y query, principal verificado y Accept (única variación de las APIs)
+     */
+    record Key(String route, String path, String query, String principal, String accept) {
+
+        int weight() {
+            return length(route) + length(path) + length(query) + length(principal) + length(accept);
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    record Entry(HttpHeaders headers, byte[] body, long storedAtNanos, long freshNanos, long staleNanos) {
+
+        String etag() {
+            return headers.getETag();
+        }
+
+        boolean isFresh(long now) {
+            return now - storedAtNanos < freshNanos;
+        }
+
+        boolean isStaleServable(long now) {
+            return now - storedAtNanos < freshNanos + staleNanos;
+        }
+
+        long ageSeconds(long now) {
+            return Duration.ofNanos(now - storedAtNanos).toSeconds();
+        }
+
+        int weight() {
+            int weight = ENTRY_OVERHEAD_BYTES + body.length;
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                weight += header.getKey().length();
+                for (String value : header.getValue()) {
+                    weight += value.length();
+                }
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.microservices.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché de respuestas GET de una ruta. Fresca: se sirve sin ir al origen. Obsoleta dentro de
+ * stale-while-revalidate: se sirve y se revalida en segundo plano. Pasada esa ventana, o si la
+ * respuesta era no-cache, se reenvía con If-None-Match y un 304 del origen se responde con la copia.
+ * La clave incluye el principal verificado por EdgeJwtFilter, así que las respuestas private también
+ * se guardan. Un PUT/PATCH/POST/DELETE con éxito sobre el mismo path descarta sus copias.
+ */
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    private final String routeId;
+    private final ResponseCache cache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> results = new ConcurrentHashMap<>();
+    private final Counter bytesSaved;
+
+    ResponseCacheFilter(String routeId, ResponseCache cache, MeterRegistry meterRegistry) {
+        this.routeId = routeId;
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+        this.bytesSaved = Counter.builder("gateway.cache.bytes.saved")
+            .description("Bytes de cuerpo servidos desde la caché sin transferirlos desde el origen")
+            .baseUnit("bytes")
+            .tag("route", routeId)
+            .register(meterRegistry);
+        Gauge.builder("gateway.cache.hit.ratio", this, ResponseCacheFilter::hitRatio)
+            .description("Proporción de GET cacheables servidos desde la caché (hit, stale o revalidated)")
+            .tag("route", routeId)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // Antes de NettyWriteResponseFilter, que escribe en la respuesta del exchange que recibe,
+        // y antes de RequestCoalescingFilter: solo se agrupan los fallos de caché
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+            return chain.filter(exchange);
+        }
+        if (!HttpMethod.GET.equals(method)) {
+            return chain.filter(exchange).doOnSuccess(ignored -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status != null && status.is2xxSuccessful()) {
+                    cache.evictPath(routeId, request.getPath().value());
+                }
+            });
+        }
+
+        CacheDirectives requested = CacheDirectives.of(request.getHeaders());
+        if (requested.noStore() || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            result("bypass").increment();
+            return chain.filter(exchange);
+        }
+
+        ResponseCache.Key key = key(exchange);
+        ResponseCache.Entry entry = cache.get(key);
+        long now = System.nanoTime();
+        if (entry != null && !requested.requiresRevalidation()) {
+            if (entry.isFresh(now)) {
+                return serve(exchange, entry, "hit");
+            }
+            if (entry.isStaleServable(now)) {
+                cache.revalidateInBackground(key, entry, upstreamUri(exchange), request.getHeaders(),
+                    this::revalidation);
+                return serve(exchange, entry, "stale");
+            }
+        }
+
+        List<String> clientValidators = request.getHeaders().getOrEmpty(HttpHeaders.IF_NONE_MATCH);
+        ResponseCache.Entry validated = entry != null && entry.etag() != null ? entry : null;
+        ServerWebExchange forwarded = exchange;
+        if (validated != null) {
+            forwarded = exchange.mutate()
+                .request(request.mutate().headers(headers -> headers.setIfNoneMatch(validated.etag())).build())
+                .build();
+        }
+        return chain.filter(forwarded.mutate()
+            .response(new CachingResponse(exchange.getResponse(), key, validated, clientValidators))
+            .build());
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, ResponseCache.Entry entry, String result) {
+        result(result).increment();
+        bytesSaved.increment(entry.body().length);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(entry.headers());
+        response.getHeaders().set(HttpHeaders.AGE, Long.toString(entry.ageSeconds(System.nanoTime())));
+        if (matches(exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.IF_NONE_MATCH), entry.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentLength(entry.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+    }
+
+    private ResponseCache.Key key(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        return new ResponseCache.Key(routeId, request.getPath().value(), request.getURI().getRawQuery(),
+            EdgeJwtFilter.principalKey(exchange), request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * URL en el origen, como la resolvería RouteToRequestUrlFilter (que aún no ha actuado)
+     */
+    private static URI upstreamUri(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+            .scheme(route.getUri().getScheme())
+            .host(route.getUri().getHost())
+            .port(route.getUri().getPort())
+            .build(true)
+            .toUri();
+    }
+
+    private void revalidation(String outcome) {
+        Counter.builder("gateway.cache.revalidations")
+            .description("Revalidaciones en segundo plano de respuestas servidas obsoletas")
+            .tag("route", routeId)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private Counter result(String result) {
+        return results.computeIfAbsent(result, name -> Counter.builder("gateway.cache.requests")
+            .description("GET de rutas con caché por resultado (hit, stale, revalidated, miss, bypass)")
+            .tag("route", routeId)
+            .tag("result", name)
+            .register(meterRegistry));
+    }
+
+    private double hitRatio() {
+        double served = result("hit").count() + result("stale").count() + result("revalidated").count();
+        double total = served + result("miss").count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    /**
+     * Comparación débil de If-None-Match: W/"x" y "x" son el mismo validador
+     */
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        return ifNoneMatch.stream()
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .map(String::trim)
+            .anyMatch(candidate -> "*".equals(candidate) || opaque(candidate).equals(opaque));
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Guarda los 200 que llegan del origen y convierte en respuesta completa el 304 de una revalidación
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ResponseCache.Key key;
+        private final ResponseCache.Entry validated;
+        private final List<String> clientValidators;
+
+        private CachingResponse(ServerHttpResponse delegate, ResponseCache.Key key,
+                                ResponseCache.Entry validated, List<String> clientValidators) {
+            super(delegate);
+            this.key = key;
+            this.validated = validated;
+            this.clientValidators = clientValidators;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (validated != null && status != null && status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(this::writeRevalidated));
+            }
+            result("miss").increment();
+            if (status == null || !status.isSameCodeAs(HttpStatus.OK)) {
+                return super.writeWith(body);
+            }
+            BoundedBodyCopy copy = new BoundedBodyCopy(cache.maxEntryBytes());
+            return super.writeWith(copy.tee(body).doOnComplete(() -> cache.store(key, getHeaders(), copy.bytes())));
+        }
+
+        private Mono<Void> writeRevalidated() {
+            ResponseCache.Entry refreshed = cache.refresh(key, validated, getHeaders());
+            ResponseCache.Entry served = refreshed != null ? refreshed : validated;
+            result("revalidated").increment();
+            bytesSaved.increment(served.body().length);
+
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.putAll(served.headers());
+            if (matches(clientValidators, served.etag())) {
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return super.writeWith(Flux.empty());
+            }
+            setStatusCode(HttpStatus.OK);
+            headers.setContentLength(served.body().length);
+            return super.writeWith(Mono.just(bufferFactory().wrap(served.body())));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.microservices.gateway.filter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Cubos de tokens por clave con una misma política (capacidad y reposición)
+ */
+interface TokenBuckets {
+
+    /**
+     * Consume un token de la clave si lo hay
+     */
+    Mono<RateLimitDecision> tryConsume(String key);
+}
@@ -3,17 +3,17 @@ package com.microservices.user;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Aplicación principal del servicio de usuario
  */
-@SpringBootApplication
-@EnableCaching
-@ComponentScan(basePackages = {
+@SpringBootApplication(scanBasePackages = {
     "com.microservices.user",
     "com.microservices.common"
 })
+@EnableCaching
+@EnableScheduling
 public class UserServiceApplication {
 
     public static void main(String[] args) {
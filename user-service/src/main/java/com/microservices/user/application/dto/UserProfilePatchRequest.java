@@ -0,0 +1,37 @@
+package com.microservices.user.application.dto;
+
+import com.microservices.user.domain.model.ProfileField;
+import com.microservices.user.domain.model.UserProfilePatch;
+
+/**
+ * Cuerpo de PATCH de perfil (JSON merge patch): un campo ausente no se modifica y un null lo borra.
+ * Jackson solo invoca los setters de los campos presentes en el JSON.
+ */
+public class UserProfilePatchRequest {
+
+    private final UserProfilePatch patch = new UserProfilePatch();
+
+    public void setBio(String bio) {
+        patch.set(ProfileField.BIO, bio);
+    }
+
+    public void setAvatarUrl(String avatarUrl) {
+        patch.set(ProfileField.AVATAR_URL, avatarUrl);
+    }
+
+    public void setPhoneNumber(String phoneNumber) {
+        patch.set(ProfileField.PHONE_NUMBER, phoneNumber);
+    }
+
+    public void setCountry(String country) {
+        patch.set(ProfileField.COUNTRY, country);
+    }
+
+    public void setCity(String city) {
+        patch.set(ProfileField.CITY, city);
+    }
+
+    public UserProfilePatch toPatch() {
+        return patch;
+    }
+}
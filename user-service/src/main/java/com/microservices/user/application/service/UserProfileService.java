@@ -1,15 +1,23 @@
 package com.microservices.user.application.service;
 
+import com.microservices.common.exception.VersionConflictException;
+import com.microservices.user.domain.model.ProfileField;
+import com.microservices.user.domain.model.ProfileQuery;
 import com.microservices.user.domain.model.UserProfileEntity;
+import com.microservices.user.domain.model.UserProfilePatch;
+import com.microservices.user.domain.port.ProfileSearchPort;
 import com.microservices.user.domain.repository.UserProfileRepositoryPort;
 import com.microservices.user.domain.service.UserProfileUseCase;
 import io.vavr.control.Either;
-import lombok.RequiredArgsConstructor;
+import io.vavr.control.Option;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,11 +25,20 @@ import java.util.List;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class UserProfileService implements UserProfileUseCase {
 
     private final UserProfileRepositoryPort userProfileRepository;
+    private final ProfileSearchPort profileSearch;
+    private final int maxBatchSize;
+
+    public UserProfileService(UserProfileRepositoryPort userProfileRepository,
+                              ProfileSearchPort profileSearch,
+                              @Value("${app.profiles.batch.max-size:1000}") int maxBatchSize) {
+        this.userProfileRepository = userProfileRepository;
+        this.profileSearch = profileSearch;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     @Override
     public Either<String, UserProfileEntity> createProfile(Long userId, String bio, String avatarUrl) {
@@ -45,6 +62,10 @@ public class UserProfileService implements UserProfileUseCase {
         }
     }
 
+    /**
+     * Sin readOnly: rellena la caché de perfiles, y tras un desalojo por escritura la réplica aún podría
+     * devolver la fila anterior, que quedaría cacheada hasta su TTL
+     */
     @Override
     public Either<String, UserProfileEntity> getProfile(Long userId) {
         log.debug("Obteniendo perfil para usuario: {}", userId);
@@ -55,31 +76,87 @@ public class UserProfileService implements UserProfileUseCase {
             : Either.right(profileOpt.get());
     }
 
+    /**
+     * En el primario por lo mismo que getProfile
+     */
     @Override
-    public Either<String, UserProfileEntity> updateProfile(Long userId, String bio, String avatarUrl, String phoneNumber, String country, String city) {
+    public Either<String, List<UserProfileEntity>> getProfiles(Collection<Long> userIds) {
+        log.debug("Obteniendo perfiles de {} usuarios", userIds.size());
+
+        if (userIds.size() > maxBatchSize) {
+            return Either.left("Too many userIds (max " + maxBatchSize + ")");
+        }
+
+        try {
+            return Either.right(userProfileRepository.findByUserIds(userIds));
+        } catch (Exception e) {
+            log.error("Error obteniendo perfiles en lote", e);
+            return Either.left("Error retrieving profiles");
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Either<String, List<UserProfileEntity>> searchProfiles(String query, int limit) {
+        log.debug("Buscando perfiles: '{}'", query);
+
+        if (query == null || query.isBlank()) {
+            return Either.left("Query must not be empty");
+        }
+        return Either.right(profileSearch.search(query, limit));
+    }
+
+    @Override
+    public Either<String, UserProfileEntity> updateProfile(Long userId, String bio, String avatarUrl, String phoneNumber, String country, String city, Long expectedVersion) {
         log.info("Actualizando perfil para usuario: {}", userId);
 
+        // PUT reemplaza los cinco campos, pero solo se escriben los que cambian
+        return patchProfile(userId, new UserProfilePatch()
+            .set(ProfileField.BIO, bio)
+            .set(ProfileField.AVATAR_URL, avatarUrl)
+            .set(ProfileField.PHONE_NUMBER, phoneNumber)
+            .set(ProfileField.COUNTRY, country)
+            .set(ProfileField.CITY, city), expectedVersion);
+    }
+
+    @Override
+    public Either<String, UserProfileEntity> patchProfile(Long userId, UserProfilePatch patch, Long expectedVersion) {
+        log.info("Aplicando cambios {} al perfil de usuario: {}", patch, userId);
+
         var profileOpt = userProfileRepository.findByUserId(userId);
         if (profileOpt.isEmpty()) {
             return Either.left("Profile not found");
         }
 
+        UserProfileEntity current = profileOpt.get();
+        // La copia cacheada puede estar obsoleta: solo se descartan campos iguales si es de la versión
+        // exigida, y con If-Match nunca se responde desde ella (el UPDATE comprueba la versión en BD)
+        UserProfilePatch changes = expectedVersion == null || expectedVersion.equals(current.getVersion())
+            ? patch.changesAgainst(current)
+            : patch;
+        if (changes.isEmpty() && expectedVersion == null) {
+            log.debug("Perfil de usuario {} sin cambios, no se escribe", userId);
+            return Either.right(current);
+        }
+
+        Option<UserProfileEntity> updated;
         try {
-            UserProfileEntity profile = profileOpt.get();
-            profile.setBio(bio);
-            profile.setAvatarUrl(avatarUrl);
-            profile.setPhoneNumber(phoneNumber);
-            profile.setCountry(country);
-            profile.setCity(city);
-            profile.setUpdatedAt(LocalDateTime.now());
-
-            UserProfileEntity updated = userProfileRepository.save(profile);
-            log.info("Perfil actualizado exitosamente para usuario: {}", userId);
-            return Either.right(updated);
+            // La comprobación de versión la hace el propio UPDATE, no la copia cacheada
+            updated = userProfileRepository.updateFields(userId, changes, expectedVersion);
         } catch (Exception e) {
             log.error("Error actualizando perfil", e);
             return Either.left("Error updating profile: " + e.getMessage());
         }
+
+        if (updated.isEmpty()) {
+            if (expectedVersion != null) {
+                log.warn("Conflicto de versión en perfil de usuario {}: esperada {}", userId, expectedVersion);
+                throw new VersionConflictException(userId, expectedVersion);
+            }
+            return Either.left("Profile not found");
+        }
+        log.info("Perfil actualizado exitosamente para usuario: {}", userId);
+        return Either.right(updated.get());
     }
 
     @Override
@@ -102,6 +179,7 @@ public class UserProfileService implements UserProfileUseCase {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Either<String, List<UserProfileEntity>> getAllProfiles() {
         log.debug("Obteniendo todos los perfiles");
         try {
@@ -111,4 +189,16 @@ public class UserProfileService implements UserProfileUseCase {
             return Either.left("Error retrieving profiles");
         }
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Either<String, List<UserProfileEntity>> getProfilesPage(ProfileQuery query) {
+        log.debug("Obteniendo página de perfiles: {}", query);
+        try {
+            return Either.right(userProfileRepository.findPage(query));
+        } catch (Exception e) {
+            log.error("Error obteniendo página de perfiles", e);
+            return Either.left("Error retrieving profiles");
+        }
+    }
 }
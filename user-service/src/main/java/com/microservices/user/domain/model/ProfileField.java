@@ -0,0 +1,32 @@
+package com.microservices.user.domain.model;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Campos editables de un perfil
+ */
+public enum ProfileField {
+
+    BIO(UserProfileEntity::getBio, UserProfileEntity::setBio),
+    AVATAR_URL(UserProfileEntity::getAvatarUrl, UserProfileEntity::setAvatarUrl),
+    PHONE_NUMBER(UserProfileEntity::getPhoneNumber, UserProfileEntity::setPhoneNumber),
+    COUNTRY(UserProfileEntity::getCountry, UserProfileEntity::setCountry),
+    CITY(UserProfileEntity::getCity, UserProfileEntity::setCity);
+
+    private final Function<UserProfileEntity, String> getter;
+    private final BiConsumer<UserProfileEntity, String> setter;
+
+    ProfileField(Function<UserProfileEntity, String> getter, BiConsumer<UserProfileEntity, String> setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String get(UserProfileEntity profile) {
+        return getter.apply(profile);
+    }
+
+    public void set(UserProfileEntity profile, String value) {
+        setter.accept(profile, value);
+    }
+}
@@ -0,0 +1,26 @@
+package com.microservices.user.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Consulta de perfiles con filtros opcionales y paginación por cursor (keyset):
+ * afterId/afterUpdatedAt son la clave de ordenación del último elemento de la página anterior
+ */
+@Value
+@Builder
+public class ProfileQuery {
+
+    String country;
+    String city;
+
+    @Builder.Default
+    ProfileSort sort = ProfileSort.ID;
+
+    Long afterId;
+    LocalDateTime afterUpdatedAt;
+
+    int limit;
+}
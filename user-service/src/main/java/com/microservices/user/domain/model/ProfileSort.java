@@ -0,0 +1,17 @@
+package com.microservices.user.domain.model;
+
+/**
+ * Ordenaciones admitidas en el listado paginado de perfiles
+ */
+public enum ProfileSort {
+
+    /**
+     * Por id ascendente
+     */
+    ID,
+
+    /**
+     * Por fecha de actualización descendente (más recientes primero), desempate por id
+     */
+    UPDATED_AT
+}
@@ -1,6 +1,8 @@
 package com.microservices.user.domain.model;
 
 import lombok.*;
+
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 /**
@@ -12,7 +14,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @ToString
-public class UserProfileEntity {
+public class UserProfileEntity implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private Long id;
     private Long userId;
@@ -23,4 +27,5 @@ public class UserProfileEntity {
     private String city;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
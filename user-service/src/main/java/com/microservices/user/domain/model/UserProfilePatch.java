@@ -0,0 +1,45 @@
+package com.microservices.user.domain.model;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cambios parciales sobre un perfil: solo los campos presentes (un valor null borra el campo)
+ */
+public class UserProfilePatch {
+
+    private final Map<ProfileField, String> values = new EnumMap<>(ProfileField.class);
+
+    public UserProfilePatch set(ProfileField field, String value) {
+        values.put(field, value);
+        return this;
+    }
+
+    /**
+     * Subconjunto de campos cuyo valor difiere del perfil actual
+     */
+    public UserProfilePatch changesAgainst(UserProfileEntity current) {
+        UserProfilePatch changes = new UserProfilePatch();
+        values.forEach((field, value) -> {
+            if (!Objects.equals(field.get(current), value)) {
+                changes.set(field, value);
+            }
+        });
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    public Map<ProfileField, String> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    @Override
+    public String toString() {
+        return "UserProfilePatch" + values.keySet();
+    }
+}
@@ -0,0 +1,17 @@
+package com.microservices.user.domain.port;
+
+import com.microservices.user.domain.model.UserProfileEntity;
+
+import java.util.List;
+
+/**
+ * Puerto de salida para búsqueda de texto sobre perfiles (Hexagonal)
+ */
+public interface ProfileSearchPort {
+
+    /**
+     * Perfiles que contienen todos los términos de la consulta (por palabra completa, prefijo
+     * o subcadena) en bio, ciudad o país, ordenados por relevancia
+     */
+    List<UserProfileEntity> search(String query, int limit);
+}
@@ -1,7 +1,10 @@
 package com.microservices.user.domain.repository;
 
 import io.vavr.control.Option;
+import com.microservices.user.domain.model.ProfileQuery;
 import com.microservices.user.domain.model.UserProfileEntity;
+import com.microservices.user.domain.model.UserProfilePatch;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,9 +16,25 @@ public interface UserProfileRepositoryPort {
 
     Option<UserProfileEntity> findById(Long id);
 
+    /**
+     * Perfiles de varios usuarios; los userIds sin perfil no aparecen en el resultado
+     */
+    List<UserProfileEntity> findByUserIds(Collection<Long> userIds);
+
     UserProfileEntity save(UserProfileEntity profile);
 
+    /**
+     * Actualiza solo los campos del patch (sin leer antes la fila) si la versión coincide con
+     * expectedVersion (null = cualquiera); vacío si el perfil no existe o la versión no coincide
+     */
+    Option<UserProfileEntity> updateFields(Long userId, UserProfilePatch changes, Long expectedVersion);
+
     void delete(Long id);
 
     List<UserProfileEntity> findAll();
+
+    /**
+     * Página de perfiles filtrada y ordenada según la consulta, a partir de su cursor
+     */
+    List<UserProfileEntity> findPage(ProfileQuery query);
 }
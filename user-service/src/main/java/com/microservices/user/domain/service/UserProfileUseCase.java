@@ -1,7 +1,10 @@
 package com.microservices.user.domain.service;
 
+import com.microservices.user.domain.model.ProfileQuery;
 import com.microservices.user.domain.model.UserProfileEntity;
+import com.microservices.user.domain.model.UserProfilePatch;
 import io.vavr.control.Either;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,9 +16,30 @@ public interface UserProfileUseCase {
 
     Either<String, UserProfileEntity> getProfile(Long userId);
 
-    Either<String, UserProfileEntity> updateProfile(Long userId, String bio, String avatarUrl, String phoneNumber, String country, String city);
+    Either<String, List<UserProfileEntity>> getProfiles(Collection<Long> userIds);
+
+    /**
+     * Búsqueda de texto sobre bio, ciudad y país
+     */
+    Either<String, List<UserProfileEntity>> searchProfiles(String query, int limit);
+
+    /**
+     * Reemplaza los campos editables; expectedVersion (If-Match) es opcional
+     */
+    Either<String, UserProfileEntity> updateProfile(Long userId, String bio, String avatarUrl, String phoneNumber, String country, String city, Long expectedVersion);
+
+    /**
+     * Aplica solo los campos presentes; si ninguno cambia no escribe en la BD.
+     * Con expectedVersion lanza VersionConflictException si el perfil ya cambió.
+     */
+    Either<String, UserProfileEntity> patchProfile(Long userId, UserProfilePatch patch, Long expectedVersion);
 
     Either<String, Void> deleteProfile(Long userId);
 
     Either<String, List<UserProfileEntity>> getAllProfiles();
+
+    /**
+     * Página de perfiles con filtros y paginación por cursor (Admin)
+     */
+    Either<String, List<UserProfileEntity>> getProfilesPage(ProfileQuery query);
 }
@@ -0,0 +1,121 @@
+package com.microservices.user.infrastructure.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecturas y escrituras de varias claves de una caché Redis en una sola ida y vuelta
+ * (MGET y escritura en pipeline), con el mismo formato de clave y valor que RedisCache.
+ * Si la caché no es Redis recurre a operaciones clave a clave.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisCacheBatchOperations {
+
+    private final CacheManager cacheManager;
+    private final RedisConnectionFactory connectionFactory;
+
+    /**
+     * Valores cacheados de las claves dadas; las claves sin entrada no aparecen en el resultado
+     */
+    public <K> Map<K, Object> getAll(String cacheName, List<K> keys) {
+        Map<K, Object> result = new HashMap<>();
+        Cache cache = targetCache(cacheName);
+        if (cache == null || keys.isEmpty()) {
+            return result;
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            keys.forEach(key -> {
+                Cache.ValueWrapper value = cache.get(key);
+                if (value != null) {
+                    result.put(key, value.get());
+                }
+            });
+            return result;
+        }
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        byte[][] redisKeys = keys.stream()
+            .map(key -> redisKey(cacheName, config, key))
+            .toArray(byte[][]::new);
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            List<byte[]> values = connection.stringCommands().mGet(redisKeys);
+            for (int i = 0; values != null && i < values.size(); i++) {
+                byte[] value = values.get(i);
+                if (value != null) {
+                    Object stored = config.getValueSerializationPair().read(ByteBuffer.wrap(value));
+                    result.put(keys.get(i), stored instanceof NullValue ? null : stored);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("MGET sobre la caché {} fallido, se tratan como fallos de caché: {}", cacheName, e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Escribe todas las entradas en la caché con una sola escritura en pipeline
+     */
+    public <K> void putAll(String cacheName, Map<K, ?> entries) {
+        Cache cache = targetCache(cacheName);
+        if (cache == null || entries.isEmpty()) {
+            return;
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            entries.forEach(cache::put);
+            return;
+        }
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            entries.forEach((key, value) -> {
+                Object stored = value == null ? NullValue.INSTANCE : value;
+                Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                connection.stringCommands().set(
+                    redisKey(cacheName, config, key),
+                    ByteUtils.getBytes(config.getValueSerializationPair().write(stored)),
+                    ttl == null || ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                    RedisStringCommands.SetOption.upsert());
+            });
+            connection.closePipeline();
+        } catch (DataAccessException e) {
+            log.warn("Escritura en pipeline sobre la caché {} fallida: {}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * Caché real detrás del decorador transaccional: las lecturas no dependen de la transacción y
+     * el relleno en lote solo contiene datos ya confirmados
+     */
+    private Cache targetCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    private static byte[] redisKey(String cacheName, RedisCacheConfiguration config, Object key) {
+        String converted = config.getConversionService().convert(key, String.class);
+        String cacheKey = config.usePrefix() ? config.getKeyPrefixFor(cacheName) + converted : converted;
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(cacheKey));
+    }
+}
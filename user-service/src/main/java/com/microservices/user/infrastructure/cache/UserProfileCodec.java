@@ -0,0 +1,50 @@
+package com.microservices.user.infrastructure.cache;
+
+import com.microservices.common.cache.EntityCodec;
+import com.microservices.user.domain.model.UserProfileEntity;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Esquema binario de UserProfileEntity en las cachés profilesByUserId y profilesById.
+ * v1: id, userId, bio, avatarUrl, phoneNumber, country, city, createdAt, updatedAt, version.
+ */
+public class UserProfileCodec implements EntityCodec<UserProfileEntity> {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(UserProfileEntity profile, DataOutput out) throws IOException {
+        EntityCodec.writeLong(out, profile.getId());
+        EntityCodec.writeLong(out, profile.getUserId());
+        EntityCodec.writeString(out, profile.getBio());
+        EntityCodec.writeString(out, profile.getAvatarUrl());
+        EntityCodec.writeString(out, profile.getPhoneNumber());
+        EntityCodec.writeString(out, profile.getCountry());
+        EntityCodec.writeString(out, profile.getCity());
+        EntityCodec.writeDateTime(out, profile.getCreatedAt());
+        EntityCodec.writeDateTime(out, profile.getUpdatedAt());
+        EntityCodec.writeLong(out, profile.getVersion());
+    }
+
+    @Override
+    public UserProfileEntity read(DataInput in, int version) throws IOException {
+        return UserProfileEntity.builder()
+            .id(EntityCodec.readLong(in))
+            .userId(EntityCodec.readLong(in))
+            .bio(EntityCodec.readString(in))
+            .avatarUrl(EntityCodec.readString(in))
+            .phoneNumber(EntityCodec.readString(in))
+            .country(EntityCodec.readString(in))
+            .city(EntityCodec.readString(in))
+            .createdAt(EntityCodec.readDateTime(in))
+            .updatedAt(EntityCodec.readDateTime(in))
+            .version(EntityCodec.readLong(in))
+            .build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.microservices.user.infrastructure.config;
+
+import com.microservices.common.cache.CacheInvalidationBus;
+import com.microservices.common.cache.OptionRedisSerializer;
+import com.microservices.user.domain.model.UserProfileEntity;
+import com.microservices.user.infrastructure.cache.UserProfileCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.util.Set;
+
+/**
+ * Configuración de cachés de perfiles en Redis: una caché por clave de búsqueda, valores codificados
+ * en binario por esquema (UserProfileCodec) y escrituras diferidas al commit de la transacción para
+ * no publicar cambios que luego se deshacen.
+ * Los cambios se difunden por el bus de invalidación al estado local del resto de instancias.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String PROFILES_BY_USER_ID = "profilesByUserId";
+    public static final String PROFILES_BY_ID = "profilesById";
+
+    @Value("${app.cache.invalidation.channel:user:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Bean
+    public RedisCacheManagerBuilderCustomizer profileCachesCustomizer(MeterRegistry meterRegistry) {
+        UserProfileCodec codec = new UserProfileCodec();
+        return builder -> {
+            for (String name : Set.of(PROFILES_BY_USER_ID, PROFILES_BY_ID)) {
+                builder.withCacheConfiguration(name, builder.cacheDefaults().serializeValuesWith(SerializationPair.fromSerializer(
+                    new OptionRedisSerializer<>(name, UserProfileEntity.class, codec, meterRegistry))));
+            }
+            builder.transactionAware()
+                .enableStatistics();
+        };
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(redisTemplate, invalidationChannel, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           CacheInvalidationBus invalidationBus) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Entrega en el hilo de suscripción: conserva el orden de los mensajes para detectar huecos
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(invalidationBus, invalidationBus.topic());
+        return container;
+    }
+}
@@ -1,16 +1,54 @@
 package com.microservices.user.infrastructure.config;
 
+import com.microservices.user.infrastructure.security.CachingJwtAuthenticationManager;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+
 /**
  * Configuración de OAuth2 Resource Server
  */
+@Slf4j
 @Configuration
 public class OAuth2Config {
 
+    @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${app.jwt.jwks-cache-ttl:15m}")
+    private Duration jwksCacheTtl;
+
+    @Value("${app.jwt.jwks-refresh-ahead:1m}")
+    private Duration jwksRefreshAhead;
+
+    @Value("${app.jwt.verified-cache.maximum-size:50000}")
+    private long verifiedCacheMaximumSize;
+
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
@@ -21,4 +59,51 @@ public class OAuth2Config {
         converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
         return converter;
     }
+
+    /**
+     * JWKS cacheado con refresco anticipado en segundo plano (ninguna petición espera a auth-service)
+     */
+    @Bean
+    public JWKSource<SecurityContext> jwkSource() throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(URI.create(jwkSetUri).toURL())
+            .cache(jwksCacheTtl.toMillis(), JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT)
+            .refreshAheadCache(jwksRefreshAhead.toMillis(), true)
+            .retrying(true)
+            .outageTolerant(jwksCacheTtl.toMillis())
+            .build();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Los claims los valida Spring (exp, nbf, iss)
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return decoder;
+    }
+
+    @Bean
+    public CachingJwtAuthenticationManager jwtAuthenticationManager(JwtDecoder jwtDecoder,
+                                                                    JwtAuthenticationConverter jwtAuthenticationConverter,
+                                                                    MeterRegistry meterRegistry) {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(jwtAuthenticationConverter);
+        return new CachingJwtAuthenticationManager(provider, verifiedCacheMaximumSize, meterRegistry);
+    }
+
+    /**
+     * Descarga el JWKS al arrancar para que la primera petición no bloquee
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prefetchJwks() {
+        try {
+            var keys = jwkSource().get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            log.info("JWKS precargado desde {}: {} claves", jwkSetUri, keys.size());
+        } catch (Exception e) {
+            log.warn("No se pudo precargar el JWKS desde {}: {}", jwkSetUri, e.getMessage());
+        }
+    }
 }
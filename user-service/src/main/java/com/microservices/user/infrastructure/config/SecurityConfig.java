@@ -1,14 +1,21 @@
 package com.microservices.user.infrastructure.config;
 
+import com.microservices.common.security.EdgeIdentitySigner;
+import com.microservices.user.infrastructure.security.CachingJwtAuthenticationManager;
+import com.microservices.user.infrastructure.security.EdgeIdentityFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
- * Configuración de seguridad para Resource Server
+ * Configuración de seguridad para Resource Server. Con app.edge-auth.trust-gateway se aceptan
+ * además las cabeceras de identidad firmadas por el gateway sin volver a verificar el JWT.
  */
 @Configuration
 @EnableWebSecurity
@@ -16,25 +23,25 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   CachingJwtAuthenticationManager jwtAuthenticationManager,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${app.edge-auth.trust-gateway:false}") boolean trustGateway,
+                                                   @Value("${app.edge-auth.header-secret:}") String headerSecret) throws Exception {
         http
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/actuator/**", "/v3/api-docs/**", "/swagger-ui/**", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
-                .jwt(jwt -> jwt.jwtAuthenticationConverter(new JwtAuthenticationConverter()))
+                .jwt(jwt -> jwt.authenticationManager(jwtAuthenticationManager))
             );
+        if (trustGateway && !headerSecret.isBlank()) {
+            // No es un @Bean para que Boot no lo registre también como filtro de servlet
+            http.addFilterBefore(new EdgeIdentityFilter(new EdgeIdentitySigner(headerSecret), meterRegistry),
+                BearerTokenAuthenticationFilter.class);
+        }
 
         return http.build();
     }
-
-    private static class JwtAuthenticationConverter extends org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter {
-        public JwtAuthenticationConverter() {
-            var authoritiesConverter = new org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter();
-            authoritiesConverter.setAuthoritiesClaimName("roles");
-            authoritiesConverter.setAuthorityPrefix("ROLE_");
-            setJwtGrantedAuthoritiesConverter(authoritiesConverter);
-        }
-    }
 }
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "user_profiles", indexes = {
-    @Index(name = "idx_user_id", columnList = "user_id", unique = true)
+    @Index(name = "idx_user_id", columnList = "user_id", unique = true),
+    @Index(name = "idx_profiles_country_city_id", columnList = "country, city, id"),
+    @Index(name = "idx_profiles_updated_at_id", columnList = "updated_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -46,6 +48,9 @@ public class UserProfileJpaEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
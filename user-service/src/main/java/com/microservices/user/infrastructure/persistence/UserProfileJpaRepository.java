@@ -3,6 +3,8 @@ package com.microservices.user.infrastructure.persistence;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,4 +14,6 @@ import java.util.Optional;
 public interface UserProfileJpaRepository extends JpaRepository<UserProfileJpaEntity, Long> {
 
     Optional<UserProfileJpaEntity> findByUserId(Long userId);
+
+    List<UserProfileJpaEntity> findByUserIdIn(Collection<Long> userIds);
 }
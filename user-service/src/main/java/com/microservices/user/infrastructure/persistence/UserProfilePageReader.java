@@ -0,0 +1,59 @@
+package com.microservices.user.infrastructure.persistence;
+
+import com.microservices.user.domain.model.ProfileQuery;
+import com.microservices.user.domain.model.ProfileSort;
+import com.microservices.user.domain.model.UserProfileEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Listado de perfiles por keyset: el WHERE se construye solo con los filtros presentes y la
+ * posición se expresa como comparación de fila, para que PostgreSQL recorra directamente los
+ * índices (country, city, id) y (updated_at, id) sin OFFSET
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfilePageReader {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<UserProfileEntity> findPage(ProfileQuery query) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", query.getLimit());
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+
+        if (query.getCountry() != null) {
+            where.add("country = :country");
+            params.addValue("country", query.getCountry());
+        }
+        if (query.getCity() != null) {
+            where.add("city = :city");
+            params.addValue("city", query.getCity());
+        }
+
+        String orderBy;
+        if (query.getSort() == ProfileSort.UPDATED_AT) {
+            if (query.getAfterUpdatedAt() != null && query.getAfterId() != null) {
+                where.add("(updated_at, id) < (:afterUpdatedAt, :afterId)");
+                params.addValue("afterUpdatedAt", Timestamp.valueOf(query.getAfterUpdatedAt()));
+                params.addValue("afterId", query.getAfterId());
+            }
+            orderBy = " ORDER BY updated_at DESC, id DESC";
+        } else {
+            if (query.getAfterId() != null) {
+                where.add("id > :afterId");
+                params.addValue("afterId", query.getAfterId());
+            }
+            orderBy = " ORDER BY id";
+        }
+
+        String sql = "SELECT " + UserProfileRowMapper.COLUMNS + " FROM user_profiles"
+            + where + orderBy + " LIMIT :limit";
+        return jdbcTemplate.query(sql, params, UserProfileRowMapper.INSTANCE);
+    }
+}
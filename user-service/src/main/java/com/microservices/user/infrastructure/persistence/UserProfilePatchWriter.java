@@ -0,0 +1,66 @@
+package com.microservices.user.infrastructure.persistence;
+
+import com.microservices.user.domain.model.ProfileField;
+import com.microservices.user.domain.model.UserProfileEntity;
+import com.microservices.user.domain.model.UserProfilePatch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * UPDATE de perfil limitado a las columnas cambiadas, devolviendo la fila resultante (RETURNING)
+ * en la misma sentencia: sin SELECT previo del merge de JPA ni reescritura de columnas intactas.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserProfilePatchWriter {
+
+    private static final Map<ProfileField, String> COLUMNS = new EnumMap<>(Map.of(
+        ProfileField.BIO, "bio",
+        ProfileField.AVATAR_URL, "avatar_url",
+        ProfileField.PHONE_NUMBER, "phone_number",
+        ProfileField.COUNTRY, "country",
+        ProfileField.CITY, "city"));
+
+    private static final String RETURNING = " RETURNING " + UserProfileRowMapper.COLUMNS;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Aplica los cambios al perfil del usuario e incrementa su versión; lista vacía si no existe
+     * o si expectedVersion (opcional) ya no es la versión actual. Sin cambios no incrementa nada:
+     * solo comprueba la versión en la propia fila y la devuelve.
+     */
+    public List<UserProfileEntity> update(Long userId, UserProfilePatch changes, Long expectedVersion) {
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+        StringJoiner assignments = new StringJoiner(", ");
+        changes.values().forEach((field, value) -> {
+            String column = COLUMNS.get(field);
+            assignments.add(column + " = :" + column);
+            params.addValue(column, value);
+        });
+        if (changes.isEmpty()) {
+            assignments.add("version = version");
+        } else {
+            assignments.add("updated_at = :updatedAt");
+            assignments.add("version = version + 1");
+            params.addValue("updatedAt", Timestamp.valueOf(LocalDateTime.now()));
+        }
+
+        String where = " WHERE user_id = :userId";
+        if (expectedVersion != null) {
+            where += " AND version = :expectedVersion";
+            params.addValue("expectedVersion", expectedVersion);
+        }
+        String sql = "UPDATE user_profiles SET " + assignments + where + RETURNING;
+        return jdbcTemplate.query(sql, params, UserProfileRowMapper.INSTANCE);
+    }
+}
@@ -1,15 +1,27 @@
 package com.microservices.user.infrastructure.persistence;
 
+import com.microservices.common.cache.CacheInvalidationBus;
+import com.microservices.user.domain.model.ProfileQuery;
 import com.microservices.user.domain.model.UserProfileEntity;
+import com.microservices.user.domain.model.UserProfilePatch;
 import com.microservices.user.domain.repository.UserProfileRepositoryPort;
+import com.microservices.user.infrastructure.cache.RedisCacheBatchOperations;
+import com.microservices.user.infrastructure.config.CacheConfig;
+import com.microservices.user.infrastructure.search.ProfileSearchIndex;
 import io.vavr.control.Option;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Adaptador de persistencia para UserProfile
@@ -21,9 +33,15 @@ public class UserProfileRepositoryAdapter implements UserProfileRepositoryPort {
 
     private final UserProfileJpaRepository jpaRepository;
     private final UserProfileMapper mapper;
+    private final UserProfilePatchWriter patchWriter;
+    private final UserProfilePageReader pageReader;
+    private final RedisCacheBatchOperations cacheBatch;
+    private final CacheManager cacheManager;
+    private final ProfileSearchIndex searchIndex;
+    private final CacheInvalidationBus invalidationBus;
 
     @Override
-    @Cacheable(value = "userProfiles", key = "#userId")
+    @Cacheable(value = CacheConfig.PROFILES_BY_USER_ID, key = "#userId")
     public Option<UserProfileEntity> findByUserId(Long userId) {
         log.debug("Buscando perfil por userId: {}", userId);
         return Option.ofOptional(
@@ -33,7 +51,7 @@ public class UserProfileRepositoryAdapter implements UserProfileRepositoryPort {
     }
 
     @Override
-    @Cacheable(value = "userProfiles", key = "#id")
+    @Cacheable(value = CacheConfig.PROFILES_BY_ID, key = "#id")
     public Option<UserProfileEntity> findById(Long id) {
         log.debug("Buscando perfil por ID: {}", id);
         return Option.ofOptional(
@@ -42,20 +60,72 @@ public class UserProfileRepositoryAdapter implements UserProfileRepositoryPort {
         );
     }
 
+    /**
+     * Aciertos desde la caché con un MGET, fallos con una sola consulta IN y relleno de la caché
+     * en pipeline (incluidos los userIds sin perfil, igual que findByUserId)
+     */
+    @Override
+    public List<UserProfileEntity> findByUserIds(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Object> cached = cacheBatch.getAll(CacheConfig.PROFILES_BY_USER_ID, ids);
+
+        Map<Long, UserProfileEntity> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (cached.get(id) instanceof Option<?> option) {
+                option.forEach(profile -> found.put(id, (UserProfileEntity) profile));
+            } else {
+                misses.add(id);
+            }
+        }
+        log.debug("Perfiles en lote: {} solicitados, {} fallos de caché", ids.size(), misses.size());
+
+        if (!misses.isEmpty()) {
+            Map<Long, Option<UserProfileEntity>> loaded = new HashMap<>();
+            for (UserProfileJpaEntity entity : jpaRepository.findByUserIdIn(misses)) {
+                UserProfileEntity profile = mapper.toDomain(entity);
+                found.put(profile.getUserId(), profile);
+                loaded.put(profile.getUserId(), Option.of(profile));
+            }
+            misses.forEach(id -> loaded.putIfAbsent(id, Option.none()));
+            cacheBatch.putAll(CacheConfig.PROFILES_BY_USER_ID, loaded);
+        }
+
+        return ids.stream()
+            .map(found::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * El perfil guardado desaloja solo sus propias entradas en las cachés (tras el commit, ver
+     * CacheConfig) y se avisa al resto de instancias; la siguiente lectura las rellena desde BD
+     */
     @Override
-    @CacheEvict(value = "userProfiles", allEntries = true)
     public UserProfileEntity save(UserProfileEntity profile) {
         log.debug("Guardando perfil para usuario: {}", profile.getUserId());
         UserProfileJpaEntity jpaEntity = mapper.toJpa(profile);
         UserProfileJpaEntity saved = jpaRepository.save(jpaEntity);
-        return mapper.toDomain(saved);
+        return evictCached(mapper.toDomain(saved));
+    }
+
+    @Override
+    public Option<UserProfileEntity> updateFields(Long userId, UserProfilePatch changes, Long expectedVersion) {
+        log.debug("Actualizando campos {} del perfil de usuario: {}", changes, userId);
+        return Option.ofOptional(patchWriter.update(userId, changes, expectedVersion).stream().findFirst())
+            .map(this::evictCached);
     }
 
     @Override
-    @CacheEvict(value = "userProfiles", allEntries = true)
     public void delete(Long id) {
         log.debug("Eliminando perfil: {}", id);
-        jpaRepository.deleteById(id);
+        jpaRepository.findById(id).ifPresent(entity -> {
+            jpaRepository.delete(entity);
+            cache(CacheConfig.PROFILES_BY_USER_ID).evict(entity.getUserId());
+            cache(CacheConfig.PROFILES_BY_ID).evict(entity.getId());
+            searchIndex.removeAfterCommit(entity.getId());
+            publishInvalidation(entity.getUserId(), entity.getId());
+        });
     }
 
     @Override
@@ -66,4 +136,31 @@ public class UserProfileRepositoryAdapter implements UserProfileRepositoryPort {
             .map(mapper::toDomain)
             .toList();
     }
+
+    @Override
+    public List<UserProfileEntity> findPage(ProfileQuery query) {
+        log.debug("Obteniendo página de perfiles: {}", query);
+        return pageReader.findPage(query);
+    }
+
+    /**
+     * Desalojo y no put: los after-commit de dos escrituras concurrentes pueden ejecutarse en orden
+     * inverso al de sus commits y dejar cacheada la versión antigua hasta el TTL
+     */
+    private UserProfileEntity evictCached(UserProfileEntity profile) {
+        cache(CacheConfig.PROFILES_BY_USER_ID).evict(profile.getUserId());
+        cache(CacheConfig.PROFILES_BY_ID).evict(profile.getId());
+        searchIndex.indexAfterCommit(profile);
+        publishInvalidation(profile.getUserId(), profile.getId());
+        return profile;
+    }
+
+    private void publishInvalidation(Long userId, Long id) {
+        invalidationBus.publishAfterCommit(CacheConfig.PROFILES_BY_USER_ID, userId);
+        invalidationBus.publishAfterCommit(CacheConfig.PROFILES_BY_ID, id);
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
 }
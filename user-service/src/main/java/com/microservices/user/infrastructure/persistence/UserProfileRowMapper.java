@@ -0,0 +1,43 @@
+package com.microservices.user.infrastructure.persistence;
+
+import com.microservices.user.domain.model.UserProfileEntity;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Mapeo de filas de user_profiles a la entidad de dominio para las consultas JDBC
+ */
+public final class UserProfileRowMapper implements RowMapper<UserProfileEntity> {
+
+    public static final String COLUMNS =
+        "id, user_id, bio, avatar_url, phone_number, country, city, created_at, updated_at, version";
+
+    public static final UserProfileRowMapper INSTANCE = new UserProfileRowMapper();
+
+    private UserProfileRowMapper() {
+    }
+
+    @Override
+    public UserProfileEntity mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return UserProfileEntity.builder()
+            .id(rs.getLong("id"))
+            .userId(rs.getLong("user_id"))
+            .bio(rs.getString("bio"))
+            .avatarUrl(rs.getString("avatar_url"))
+            .phoneNumber(rs.getString("phone_number"))
+            .country(rs.getString("country"))
+            .city(rs.getString("city"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+            .version(rs.getLong("version"))
+            .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
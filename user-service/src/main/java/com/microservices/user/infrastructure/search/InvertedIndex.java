@@ -0,0 +1,330 @@
+package com.microservices.user.infrastructure.search;
+
+import com.microservices.user.domain.model.UserProfileEntity;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre bio, ciudad y país de los perfiles.
+ * El diccionario de términos está ordenado para resolver prefijos como un rango, y un índice de
+ * trigramas sobre los términos resuelve subcadenas sin recorrer todo el diccionario.
+ * Lecturas concurrentes; las escrituras toman el lock exclusivo.
+ */
+class InvertedIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int GRAM = 3;
+
+    private static final double EXACT_SCORE = 2.0;
+    private static final double PREFIX_SCORE = 1.0;
+    private static final double INFIX_SCORE = 0.5;
+
+    // Nodo del HashSet más el Long de cada posting, y nodo de cada término en un conjunto de trigrama
+    private static final long POSTING_BYTES = 48;
+    private static final long GRAM_TERM_BYTES = 32;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    // Perfiles borrados mientras se recorre la tabla, para que el recorrido no los resucite
+    private final Set<Long> removedDuringScan = new HashSet<>();
+    private boolean scanning = true;
+    // Estimación de memoria mantenida en cada cambio (bajo el lock de escritura) para leerla sin recorrer el índice
+    private volatile long memoryBytes;
+
+    /**
+     * Indexa (o reindexa) un perfil por su id, salvo que ya haya una versión más nueva
+     */
+    void put(UserProfileEntity profile) {
+        put(profile, false);
+    }
+
+    /**
+     * Fila leída al construir el índice: no pisa cambios ni borrados ya aplicados por afterCommit
+     * y posteriores a la instantánea del recorrido
+     */
+    void putFromScan(UserProfileEntity profile) {
+        put(profile, true);
+    }
+
+    void finishScan() {
+        lock.writeLock().lock();
+        try {
+            scanning = false;
+            removedDuringScan.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(UserProfileEntity profile, boolean fromScan) {
+        Set<String> terms = new HashSet<>();
+        tokenize(profile.getBio(), terms);
+        tokenize(profile.getCity(), terms);
+        tokenize(profile.getCountry(), terms);
+
+        lock.writeLock().lock();
+        try {
+            Document existing = documents.get(profile.getId());
+            if ((fromScan && removedDuringScan.contains(profile.getId())) || isNewer(existing, profile, fromScan)) {
+                return;
+            }
+            Document document = new Document(profile, terms);
+            Document previous = documents.put(profile.getId(), document);
+            memoryBytes += documentBytes(document) - (previous == null ? 0 : documentBytes(previous));
+            if (previous != null) {
+                for (String term : previous.terms()) {
+                    if (!terms.contains(term)) {
+                        unlink(term, profile.getId());
+                    }
+                }
+            }
+            for (String term : terms) {
+                if (previous == null || !previous.terms().contains(term)) {
+                    link(term, profile.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long profileId) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(profileId);
+            if (previous != null) {
+                memoryBytes -= documentBytes(previous);
+                previous.terms().forEach(term -> unlink(term, profileId));
+            }
+            if (scanning) {
+                removedDuringScan.add(profileId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Documentos que casan con todos los términos de la consulta, por puntuación descendente
+     */
+    List<UserProfileEntity> search(String query, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>();
+        tokenize(query, queryTerms);
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = match(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> documents.get(entry.getKey()).profile())
+                .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimación de la memoria ocupada (cabeceras de objeto y referencias en una JVM de 64 bits
+     * con compressed oops; incluye los perfiles almacenados para devolver los resultados)
+     */
+    long estimatedMemoryBytes() {
+        return memoryBytes;
+    }
+
+    private Map<Long, Double> match(String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        // Palabra completa y prefijo: rango [queryTerm, queryTerm + MAX_VALUE) del diccionario ordenado
+        for (Map.Entry<String, Set<Long>> entry : postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE).entrySet()) {
+            double score = entry.getKey().equals(queryTerm) ? EXACT_SCORE : PREFIX_SCORE;
+            entry.getValue().forEach(id -> scores.merge(id, score, Math::max));
+        }
+
+        // Subcadena: términos que contienen todos los trigramas de la consulta
+        if (queryTerm.length() >= GRAM) {
+            for (String term : infixCandidates(queryTerm)) {
+                if (!term.startsWith(queryTerm) && term.contains(queryTerm)) {
+                    postings.get(term).forEach(id -> scores.merge(id, INFIX_SCORE, Math::max));
+                }
+            }
+        }
+        return scores;
+    }
+
+    private Set<String> infixCandidates(String queryTerm) {
+        List<Set<String>> gramTerms = new ArrayList<>();
+        for (String gram : grams(queryTerm)) {
+            Set<String> terms = trigrams.get(gram);
+            if (terms == null) {
+                return Set.of();
+            }
+            gramTerms.add(terms);
+        }
+        // Se parte del trigrama más selectivo para que la intersección copie lo mínimo
+        gramTerms.sort(Comparator.comparingInt(Set::size));
+        Set<String> candidates = new HashSet<>(gramTerms.get(0));
+        for (int i = 1; i < gramTerms.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(gramTerms.get(i));
+        }
+        return candidates;
+    }
+
+    private static boolean isNewer(Document existing, UserProfileEntity profile, boolean fromScan) {
+        if (existing == null) {
+            return false;
+        }
+        Long existingVersion = existing.profile().getVersion();
+        Long version = profile.getVersion();
+        if (existingVersion == null || version == null) {
+            return fromScan;
+        }
+        return fromScan ? existingVersion >= version : existingVersion > version;
+    }
+
+    private void link(String term, Long profileId) {
+        Set<Long> ids = postings.get(term);
+        if (ids == null) {
+            ids = new HashSet<>();
+            postings.put(term, ids);
+            memoryBytes += termBytes(term);
+            for (String gram : grams(term)) {
+                Set<String> terms = trigrams.get(gram);
+                if (terms == null) {
+                    terms = new HashSet<>();
+                    trigrams.put(gram, terms);
+                    memoryBytes += gramBytes(gram);
+                }
+                if (terms.add(term)) {
+                    memoryBytes += GRAM_TERM_BYTES;
+                }
+            }
+        }
+        if (ids.add(profileId)) {
+            memoryBytes += POSTING_BYTES;
+        }
+    }
+
+    private void unlink(String term, Long profileId) {
+        Set<Long> ids = postings.get(term);
+        if (ids == null) {
+            return;
+        }
+        if (ids.remove(profileId)) {
+            memoryBytes -= POSTING_BYTES;
+        }
+        if (ids.isEmpty()) {
+            postings.remove(term);
+            memoryBytes -= termBytes(term);
+            for (String gram : grams(term)) {
+                Set<String> terms = trigrams.get(gram);
+                if (terms != null && terms.remove(term)) {
+                    memoryBytes -= GRAM_TERM_BYTES;
+                    if (terms.isEmpty()) {
+                        trigrams.remove(gram);
+                        memoryBytes -= gramBytes(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> grams(String term) {
+        List<String> grams = new ArrayList<>(Math.max(0, term.length() - GRAM + 1));
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Minúsculas, sin acentos y separado por cualquier carácter que no sea letra o dígito
+     */
+    static void tokenize(String text, Set<String> terms) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        for (String token : SEPARATORS.split(normalized)) {
+            if (token.length() >= MIN_TERM_LENGTH) {
+                terms.add(token);
+            }
+        }
+    }
+
+    // Entrada del TreeMap + String + HashSet de postings
+    private static long termBytes(String term) {
+        return 40 + stringBytes(term) + 64;
+    }
+
+    private static long gramBytes(String gram) {
+        return 48 + stringBytes(gram) + 64;
+    }
+
+    private static long documentBytes(Document document) {
+        UserProfileEntity profile = document.profile();
+        return 48 + 96 + document.terms().size() * 32L
+            + stringBytes(profile.getBio()) + stringBytes(profile.getAvatarUrl())
+            + stringBytes(profile.getPhoneNumber()) + stringBytes(profile.getCountry())
+            + stringBytes(profile.getCity());
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private record Document(UserProfileEntity profile, Set<String> terms) {
+    }
+}
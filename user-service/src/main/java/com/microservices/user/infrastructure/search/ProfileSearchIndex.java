@@ -0,0 +1,237 @@
+package com.microservices.user.infrastructure.search;
+
+import com.microservices.common.cache.CacheInvalidationBus;
+import com.microservices.common.cache.CacheInvalidationListener;
+import com.microservices.common.concurrent.BackgroundRebuilder;
+import com.microservices.user.domain.model.UserProfileEntity;
+import com.microservices.user.domain.port.ProfileSearchPort;
+import com.microservices.user.infrastructure.config.CacheConfig;
+import com.microservices.user.infrastructure.persistence.UserProfileRowMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Búsqueda de perfiles sobre un índice invertido en memoria. Se construye al arrancar recorriendo
+ * user_profiles con un cursor JDBC, se mantiene con cada alta, cambio o borrado confirmado (propio o
+ * de otra instancia, vía el bus de invalidación) y se reconstruye periódicamente o si se pierden mensajes.
+ */
+@Slf4j
+@Component
+public class ProfileSearchIndex implements ProfileSearchPort {
+
+    private static final String SCAN_SQL = "SELECT " + UserProfileRowMapper.COLUMNS + " FROM user_profiles";
+    private static final String FIND_SQL = SCAN_SQL + " WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate scanTransaction;
+    private final int fetchSize;
+    private final Timer rebuildTimer;
+    private final Timer queryTimer;
+    private final BackgroundRebuilder rebuilder;
+    private final TaskScheduler taskScheduler;
+    // Perfiles con un refresco ya encolado: varios avisos seguidos del mismo perfil se leen una vez
+    private final Set<Long> pendingRefreshes = ConcurrentHashMap.newKeySet();
+
+    private volatile InvertedIndex current;
+    private volatile InvertedIndex building;
+
+    public ProfileSearchIndex(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              CacheInvalidationBus invalidationBus,
+                              TaskScheduler taskScheduler,
+                              @Value("${app.search.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // El driver de PostgreSQL solo respeta fetchSize (cursor) con autocommit desactivado. Sin readOnly,
+        // para leer del primario: en la réplica faltaría lo confirmado dentro de su retraso antes de
+        // publicar building, y el intercambio lo perdería hasta la siguiente reconstrucción
+        this.scanTransaction = new TransactionTemplate(transactionManager);
+        this.fetchSize = fetchSize;
+        this.rebuilder = new BackgroundRebuilder("índice de búsqueda de perfiles", this::rebuildIndex, taskScheduler);
+        this.taskScheduler = taskScheduler;
+
+        this.rebuildTimer = Timer.builder("profiles.search.index.rebuild")
+            .description("Tiempo de construcción del índice de búsqueda de perfiles")
+            .register(meterRegistry);
+        this.queryTimer = Timer.builder("profiles.search.query")
+            .description("Tiempo de resolución de búsquedas de perfiles")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        gauge(meterRegistry, "profiles.search.index.memory", "Memoria estimada del índice de búsqueda", "bytes",
+            InvertedIndex::estimatedMemoryBytes);
+        gauge(meterRegistry, "profiles.search.index.documents", "Perfiles indexados", null,
+            InvertedIndex::documentCount);
+        gauge(meterRegistry, "profiles.search.index.terms", "Términos distintos en el índice", null,
+            InvertedIndex::termCount);
+        invalidationBus.addListener(new RemoteChanges());
+    }
+
+    @Override
+    public List<UserProfileEntity> search(String query, int limit) {
+        InvertedIndex index = current;
+        if (index == null) {
+            return List.of();
+        }
+        return queryTimer.record(() -> index.search(query, limit));
+    }
+
+    /**
+     * Indexa el perfil cuando la transacción en curso confirma (o inmediatamente si no hay)
+     */
+    public void indexAfterCommit(UserProfileEntity profile) {
+        afterCommit(index -> index.put(profile));
+    }
+
+    public void removeAfterCommit(Long profileId) {
+        afterCommit(index -> index.remove(profileId));
+    }
+
+    /**
+     * Relee un perfil cambiado en otra instancia (ya confirmado) y lo reindexa, o lo quita si ya no existe
+     */
+    public void refresh(Long profileId) {
+        List<UserProfileEntity> rows = jdbcTemplate.query(FIND_SQL, UserProfileRowMapper.INSTANCE, profileId);
+        if (rows.isEmpty()) {
+            apply(index -> index.remove(profileId));
+        } else {
+            apply(index -> index.put(rows.get(0)));
+        }
+    }
+
+    /**
+     * Refresco en el TaskScheduler, fuera del hilo del listener de Redis: una BD lenta no debe
+     * retrasar la entrega de invalidaciones (ni la detección de huecos) del resto de cachés
+     */
+    public void requestRefresh(Long profileId) {
+        if (!pendingRefreshes.add(profileId)) {
+            return;
+        }
+        try {
+            taskScheduler.schedule(() -> {
+                // Se retira antes de leer: un cambio posterior a la lectura encola otro refresco
+                pendingRefreshes.remove(profileId);
+                refresh(profileId);
+            }, Instant.now());
+        } catch (TaskRejectedException e) {
+            pendingRefreshes.remove(profileId);
+            log.warn("Refresco del perfil {} en el índice descartado, se reconstruye: {}", profileId, e.getMessage());
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Reconstrucción en segundo plano; las peticiones que llegan mientras hay una pendiente se ignoran
+     */
+    public void requestRebuild() {
+        rebuilder.request();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.search.rebuild-interval:1h}", fixedDelayString = "${app.search.rebuild-interval:1h}")
+    public void rebuild() {
+        rebuilder.run();
+    }
+
+    private void rebuildIndex() {
+        try {
+            rebuildTimer.record(() -> {
+                InvertedIndex next = new InvertedIndex();
+                // Publicar antes de leer la tabla: lo que se confirme durante el recorrido llega vía afterCommit
+                building = next;
+
+                scanTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    var statement = connection.prepareStatement(SCAN_SQL);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, rs -> {
+                    next.putFromScan(UserProfileRowMapper.INSTANCE.mapRow(rs, 0));
+                }));
+
+                next.finishScan();
+                current = next;
+                building = null;
+                log.info("Índice de búsqueda de perfiles construido: {} perfiles, {} términos",
+                    next.documentCount(), next.termCount());
+            });
+        } catch (Exception e) {
+            building = null;
+            log.error("Error construyendo el índice de búsqueda de perfiles", e);
+        }
+    }
+
+    private void afterCommit(Consumer<InvertedIndex> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<InvertedIndex> change) {
+        // Se lee building antes que current para no perder un cambio que coincida con el intercambio
+        InvertedIndex next = building;
+        if (next != null) {
+            change.accept(next);
+        }
+        InvertedIndex target = current;
+        if (target != null && target != next) {
+            change.accept(target);
+        }
+    }
+
+    private final class RemoteChanges implements CacheInvalidationListener {
+
+        @Override
+        public void evict(String cacheName, Object key) {
+            if (CacheConfig.PROFILES_BY_ID.equals(cacheName) && key instanceof Long profileId) {
+                requestRefresh(profileId);
+            }
+        }
+
+        @Override
+        public void flush() {
+            requestRebuild();
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String description, String baseUnit,
+                       ToDoubleFunction<InvertedIndex> value) {
+        Gauge.builder(name, this, search -> {
+                InvertedIndex index = search.current;
+                return index == null ? Double.NaN : value.applyAsDouble(index);
+            })
+            .description(description)
+            .baseUnit(baseUnit)
+            .register(meterRegistry);
+    }
+}
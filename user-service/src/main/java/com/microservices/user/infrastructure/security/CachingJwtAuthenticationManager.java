@@ -0,0 +1,107 @@
+package com.microservices.user.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * AuthenticationManager que cachea los JWT ya verificados con sus authorities.
+ * La clave es el SHA-256 del token y cada entrada expira en el exp del propio token,
+ * así un bearer se verifica (firma + authorities) una sola vez durante su vida.
+ * Cada petición recibe su propio JwtAuthenticationToken, con los details de esa petición.
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    private static final String CACHE_NAME = "verifiedJwts";
+
+    private final JwtAuthenticationProvider delegate;
+    private final Cache<String, VerifiedJwt> cache;
+
+    public CachingJwtAuthenticationManager(JwtAuthenticationProvider delegate, long maximumSize,
+                                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = digest(bearer.getToken());
+        VerifiedJwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            JwtAuthenticationToken token = new JwtAuthenticationToken(cached.jwt(), cached.authorities(), cached.name());
+            token.setDetails(bearer.getDetails());
+            return token;
+        }
+
+        // Los fallos de verificación se propagan y no se cachean
+        AbstractAuthenticationToken verified = (AbstractAuthenticationToken) delegate.authenticate(bearer);
+        if (verified instanceof JwtAuthenticationToken jwtToken && jwtToken.getToken().getExpiresAt() != null) {
+            cache.put(key, new VerifiedJwt(jwtToken.getToken(), jwtToken.getAuthorities(), jwtToken.getName()));
+        }
+        return verified;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resultado de la verificación, sin nada propio de la petición que la hizo
+     */
+    private record VerifiedJwt(Jwt jwt, Collection<GrantedAuthority> authorities, String name) {
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedJwt> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedJwt value, long currentTime) {
+            Instant expiresAt = value.jwt().getExpiresAt();
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedJwt value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedJwt value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.microservices.user.infrastructure.security;
+
+import com.microservices.common.security.EdgeIdentity;
+import com.microservices.common.security.EdgeIdentitySigner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Enumeration;
+
+/**
+ * Autentica con las cabeceras de identidad firmadas por el gateway (ya verificó el JWT), sin volver
+ * a verificar el token: oculta el Authorization al BearerTokenAuthenticationFilter. Con cabeceras
+ * ausentes o firma inválida la petición sigue por la verificación normal del bearer.
+ */
+public class EdgeIdentityFilter extends OncePerRequestFilter {
+
+    private final EdgeIdentitySigner signer;
+    private final Counter trusted;
+    private final Counter untrusted;
+
+    public EdgeIdentityFilter(EdgeIdentitySigner signer, MeterRegistry meterRegistry) {
+        this.signer = signer;
+        this.trusted = outcome(meterRegistry, "trusted");
+        this.untrusted = outcome(meterRegistry, "untrusted");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String signature = request.getHeader(EdgeIdentitySigner.SIGNATURE_HEADER);
+        if (signature == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        var identity = signer.verify(
+            request.getHeader(EdgeIdentitySigner.SUBJECT_HEADER),
+            request.getHeader(EdgeIdentitySigner.ROLES_HEADER),
+            request.getHeader(EdgeIdentitySigner.EXPIRES_HEADER),
+            signature,
+            Instant.now());
+        if (identity.isEmpty()) {
+            untrusted.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        trusted.increment();
+        SecurityContextHolder.getContext().setAuthentication(authentication(identity.get()));
+        chain.doFilter(new WithoutBearerToken(request), response);
+    }
+
+    private static PreAuthenticatedAuthenticationToken authentication(EdgeIdentity identity) {
+        return new PreAuthenticatedAuthenticationToken(identity.subject(), null, identity.roles().stream()
+            .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .toList());
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("security.edge.identity")
+            .description("Peticiones con cabeceras de identidad del gateway por resultado de la firma")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static final class WithoutBearerToken extends HttpServletRequestWrapper {
+
+        private WithoutBearerToken(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return HttpHeaders.AUTHORIZATION.equalsIgnoreCase(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return HttpHeaders.AUTHORIZATION.equalsIgnoreCase(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+    }
+}
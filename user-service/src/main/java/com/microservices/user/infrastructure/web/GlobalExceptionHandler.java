@@ -0,0 +1,24 @@
+package com.microservices.user.infrastructure.web;
+
+import com.microservices.common.dto.ErrorResponse;
+import com.microservices.common.exception.VersionConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Traducción de excepciones a respuestas HTTP
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(VersionConflictException e) {
+        log.warn("Escritura condicional rechazada: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+            .body(ErrorResponse.of("PRECONDITION_FAILED", e.getMessage(), HttpStatus.PRECONDITION_FAILED.value()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.microservices.user.infrastructure.web;
+
+import com.microservices.user.domain.model.ProfileQuery;
+import com.microservices.user.domain.model.ProfileSort;
+import com.microservices.user.domain.model.UserProfileEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursores opacos del listado de perfiles: Base64url de la clave de ordenación del último elemento
+ * ("id" o "updatedAt|id" según la ordenación)
+ */
+final class ProfileCursors {
+
+    private static final String SEPARATOR = "|";
+
+    private ProfileCursors() {
+    }
+
+    static String encode(ProfileSort sort, UserProfileEntity last) {
+        String key = sort == ProfileSort.UPDATED_AT
+            ? last.getUpdatedAt() + SEPARATOR + last.getId()
+            : String.valueOf(last.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Aplica el cursor a la consulta; IllegalArgumentException si no es un cursor válido
+     */
+    static ProfileQuery.ProfileQueryBuilder decode(ProfileSort sort, String cursor, ProfileQuery.ProfileQueryBuilder query) {
+        if (cursor == null || cursor.isBlank()) {
+            return query;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (sort == ProfileSort.UPDATED_AT) {
+                int separator = key.lastIndexOf(SEPARATOR);
+                return query
+                    .afterUpdatedAt(LocalDateTime.parse(key.substring(0, separator)))
+                    .afterId(Long.parseLong(key.substring(separator + 1)));
+            }
+            return query.afterId(Long.parseLong(key));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
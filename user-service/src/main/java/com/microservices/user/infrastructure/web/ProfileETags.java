@@ -0,0 +1,58 @@
+package com.microservices.user.infrastructure.web;
+
+import com.microservices.user.domain.model.UserProfileEntity;
+
+/**
+ * ETags de perfil derivados de su columna de versión ("&lt;version&gt;")
+ */
+final class ProfileETags {
+
+    private static final long UNKNOWN_VERSION = -1L;
+
+    private ProfileETags() {
+    }
+
+    static String of(UserProfileEntity profile) {
+        return profile.getVersion() == null ? null : "\"" + profile.getVersion() + "\"";
+    }
+
+    /**
+     * true si alguna de las etiquetas de If-None-Match (o "*") coincide con el ETag actual
+     */
+    static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || stripWeak(candidate).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versión exigida por If-Match; null si no hay cabecera o es "*". Una etiqueta que no es
+     * una versión nuestra se traduce en una versión imposible para que la escritura falle con 412.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.split(",")[0].trim();
+        if (tag.startsWith("W/")) {
+            // If-Match exige comparación fuerte
+            return UNKNOWN_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return UNKNOWN_VERSION;
+        }
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -1,10 +1,18 @@
 package com.microservices.user.infrastructure.web;
 
 import com.microservices.common.dto.ApiResponse;
+import com.microservices.common.dto.CursorPage;
 import com.microservices.user.application.dto.UserProfileDto;
+import com.microservices.user.application.dto.UserProfilePatchRequest;
+import com.microservices.user.domain.model.ProfileQuery;
+import com.microservices.user.domain.model.ProfileSort;
+import com.microservices.user.domain.model.UserProfileEntity;
 import com.microservices.user.domain.service.UserProfileUseCase;
+import io.vavr.control.Either;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,6 +29,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserProfileController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
     private final UserProfileUseCase userProfileUseCase;
 
     @PostMapping
@@ -42,27 +54,77 @@ public class UserProfileController {
                     .status(400)
                     .build()),
             profile -> ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ProfileETags.of(profile))
                 .body(ApiResponse.created(mapToDto(profile)))
         );
     }
 
+    /**
+     * GET condicional: con If-None-Match vigente responde 304 sin construir el cuerpo
+     */
     @GetMapping("/{userId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<ApiResponse<UserProfileDto>> getProfile(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<UserProfileDto>> getProfile(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Obteniendo perfil para usuario: {}", userId);
 
         var result = userProfileUseCase.getProfile(userId);
 
         return result.fold(
             error -> ResponseEntity.notFound().build(),
-            profile -> ResponseEntity.ok(ApiResponse.ok(mapToDto(profile), "Profile found"))
+            profile -> {
+                String etag = ProfileETags.of(profile);
+                CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+                if (ProfileETags.matchesAny(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .cacheControl(cacheControl)
+                        .build();
+                }
+                return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .body(ApiResponse.ok(mapToDto(profile), "Profile found"));
+            }
         );
     }
 
+    /**
+     * Búsqueda de texto sobre el índice en memoria (palabras completas, prefijos y subcadenas)
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<java.util.List<UserProfileDto>>> searchProfiles(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_LIMIT) int limit) {
+        log.info("Buscando perfiles: '{}'", q);
+        int maxResults = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return toBatchResponse(userProfileUseCase.searchProfiles(q, maxResults));
+    }
+
+    @GetMapping(params = "userIds")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<java.util.List<UserProfileDto>>> getProfiles(@RequestParam java.util.List<Long> userIds) {
+        log.info("Obteniendo perfiles en lote: {} usuarios", userIds.size());
+        return toBatchResponse(userProfileUseCase.getProfiles(userIds));
+    }
+
+    /**
+     * Variante POST de la búsqueda en lote para conjuntos de userIds que no caben en la URL
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<java.util.List<UserProfileDto>>> getProfilesBatch(@RequestBody java.util.List<Long> userIds) {
+        log.info("Obteniendo perfiles en lote (POST): {} usuarios", userIds.size());
+        return toBatchResponse(userProfileUseCase.getProfiles(userIds));
+    }
+
     @PutMapping("/{userId}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<ApiResponse<UserProfileDto>> updateProfile(
             @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UserProfileDto request) {
         log.info("Actualizando perfil para usuario: {}", userId);
 
@@ -72,7 +134,8 @@ public class UserProfileController {
             request.getAvatarUrl(),
             request.getPhoneNumber(),
             request.getCountry(),
-            request.getCity()
+            request.getCity(),
+            ProfileETags.expectedVersion(ifMatch)
         );
 
         return result.fold(
@@ -82,17 +145,95 @@ public class UserProfileController {
                     .message(error)
                     .status(400)
                     .build()),
-            profile -> ResponseEntity.ok(ApiResponse.ok(mapToDto(profile), "Profile updated"))
+            profile -> ResponseEntity.ok()
+                .eTag(ProfileETags.of(profile))
+                .body(ApiResponse.ok(mapToDto(profile), "Profile updated"))
+        );
+    }
+
+    /**
+     * Actualización parcial (JSON merge patch): solo se escriben los campos presentes que cambian
+     */
+    @PatchMapping(value = "/{userId}", consumes = {"application/json", "application/merge-patch+json"})
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<ApiResponse<UserProfileDto>> patchProfile(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody UserProfilePatchRequest request) {
+        log.info("Actualizando parcialmente perfil para usuario: {}", userId);
+
+        var result = userProfileUseCase.patchProfile(userId, request.toPatch(), ProfileETags.expectedVersion(ifMatch));
+
+        return result.fold(
+            error -> ResponseEntity.badRequest()
+                .body(ApiResponse.<UserProfileDto>builder()
+                    .code("ERROR")
+                    .message(error)
+                    .status(400)
+                    .build()),
+            profile -> ResponseEntity.ok()
+                .eTag(ProfileETags.of(profile))
+                .body(ApiResponse.ok(mapToDto(profile), "Profile updated"))
         );
     }
 
+    /**
+     * Listado de perfiles (Admin) filtrable por país y ciudad, ordenado por id o por
+     * fecha de actualización y paginado por cursor
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<ApiResponse<java.util.List<UserProfileDto>>> getAllProfiles() {
-        var result = userProfileUseCase.getAllProfiles();
+    public ResponseEntity<ApiResponse<CursorPage<UserProfileDto>>> getAllProfiles(
+            @RequestParam(required = false) String country,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        ProfileSort profileSort = "updatedAt".equals(sort) ? ProfileSort.UPDATED_AT : ProfileSort.ID;
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        ProfileQuery query;
+        try {
+            query = ProfileCursors.decode(profileSort, cursor, ProfileQuery.builder())
+                .country(country)
+                .city(city)
+                .sort(profileSort)
+                .limit(pageSize)
+                .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.<CursorPage<UserProfileDto>>builder()
+                    .code("ERROR")
+                    .message(e.getMessage())
+                    .status(400)
+                    .build());
+        }
+
+        var result = userProfileUseCase.getProfilesPage(query);
 
         return result.fold(
             error -> ResponseEntity.internalServerError().build(),
+            profiles -> {
+                var dtos = profiles.stream()
+                    .map(this::mapToDto)
+                    .collect(Collectors.toList());
+                String nextCursor = profiles.size() < pageSize
+                    ? null
+                    : ProfileCursors.encode(profileSort, profiles.get(profiles.size() - 1));
+                return ResponseEntity.ok(ApiResponse.ok(CursorPage.of(dtos, nextCursor), "Profiles retrieved"));
+            }
+        );
+    }
+
+    private ResponseEntity<ApiResponse<java.util.List<UserProfileDto>>> toBatchResponse(
+            Either<String, java.util.List<UserProfileEntity>> result) {
+        return result.fold(
+            error -> ResponseEntity.badRequest()
+                .body(ApiResponse.<java.util.List<UserProfileDto>>builder()
+                    .code("ERROR")
+                    .message(error)
+                    .status(400)
+                    .build()),
             profiles -> {
                 var dtos = profiles.stream()
                     .map(this::mapToDto)
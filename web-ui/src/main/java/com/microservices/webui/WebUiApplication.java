@@ -2,13 +2,11 @@ package com.microservices.webui;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.ComponentScan;
 
 /**
  * Aplicación Web UI
  */
-@SpringBootApplication
-@ComponentScan(basePackages = {
+@SpringBootApplication(scanBasePackages = {
     "com.microservices.webui",
     "com.microservices.common"
 })
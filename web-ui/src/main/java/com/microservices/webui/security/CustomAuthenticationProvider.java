@@ -4,11 +4,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
@@ -39,6 +41,12 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
             // Llamar a Auth Service para validar credenciales
             AuthResponse authResponse = webClient.post()
                 .uri("/auth/api/v1/auth/validate")
+                .headers(headers -> {
+                    // IP del navegador para que Auth Service limite los intentos por cliente y no por web-ui
+                    if (authentication.getDetails() instanceof WebAuthenticationDetails details) {
+                        headers.set("X-Forwarded-For", details.getRemoteAddress());
+                    }
+                })
                 .bodyValue(new AuthRequest(username, password))
                 .retrieve()
                 .bodyToMono(AuthResponse.class)
@@ -67,6 +75,9 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         } catch (WebClientResponseException.Unauthorized e) {
             log.warn("❌ Credenciales rechazadas por Auth Service: {}", e.getStatusCode());
             throw new BadCredentialsException("Usuario o contraseña inválidos", e);
+        } catch (WebClientResponseException.TooManyRequests e) {
+            log.warn("❌ Usuario bloqueado temporalmente por intentos fallidos: {}", username);
+            throw new LockedException("Demasiados intentos fallidos, inténtalo más tarde", e);
         } catch (WebClientResponseException.NotFound e) {
             log.warn("❌ Usuario no encontrado: {}", username);
             throw new BadCredentialsException("Usuario o contraseña inválidos", e);